@@ -0,0 +1,63 @@
+package com.example.currencyapp.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheContentionBenchmark {
+    private ExchangeRateCache cache;
+    private Map<String, Map<String, BigDecimal>> tables;
+
+    @Setup
+    public void setUp() {
+        cache = new ExchangeRateCache();
+        tables = RateLookupBenchmark.sampleTables();
+        cache.publish(tables);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long readOnly() {
+        return cache.rate("USD", "PLN");
+    }
+
+    @Benchmark
+    @Group("readWhileRefreshing")
+    @GroupThreads(3)
+    public long reader() {
+        return cache.rate("USD", "PLN");
+    }
+
+    @Benchmark
+    @Group("readWhileRefreshing")
+    @GroupThreads(1)
+    public void writer() {
+        cache.publish(tables);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<String, BigDecimal> materializeRow() {
+        return cache.getRatesForCurrency("USD");
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.currencyapp.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLookupBenchmark {
+    static final String[] CODES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD",
+            "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD",
+            "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "USD", "ZAR", "HRK", "RUB"};
+
+    private static final int PAIRS = 1024;
+
+    private Map<String, Map<String, BigDecimal>> nestedMaps;
+    private RatesSnapshot snapshot;
+    private String[] fromCodes;
+    private String[] toCodes;
+    private int[] fromOrdinals;
+    private int[] toOrdinals;
+
+    @Setup
+    public void setUp() {
+        nestedMaps = new ConcurrentHashMap<>(sampleTables());
+        snapshot = RatesSnapshot.EMPTY.withRates(nestedMaps, Instant.now());
+
+        Random random = new Random(42);
+        fromCodes = new String[PAIRS];
+        toCodes = new String[PAIRS];
+        fromOrdinals = new int[PAIRS];
+        toOrdinals = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            fromCodes[i] = CODES[random.nextInt(CODES.length)];
+            do {
+                toCodes[i] = CODES[random.nextInt(CODES.length)];
+            } while (toCodes[i].equals(fromCodes[i]));
+            fromOrdinals[i] = snapshot.matrix().ordinalOf(fromCodes[i]);
+            toOrdinals[i] = snapshot.matrix().ordinalOf(toCodes[i]);
+        }
+    }
+
+    public static Map<String, Map<String, BigDecimal>> sampleTables() {
+        Random random = new Random(7);
+        Map<String, Map<String, BigDecimal>> tables = new HashMap<>();
+        for (String base : CODES) {
+            Map<String, BigDecimal> row = new HashMap<>();
+            for (String quote : CODES) {
+                if (!quote.equals(base)) {
+                    row.put(quote, BigDecimal.valueOf(random.nextInt(10_000_000) + 1, 5));
+                }
+            }
+            tables.put(base, row);
+        }
+        return tables;
+    }
+
+    @Benchmark
+    public void nestedMapLookup(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(nestedMaps.get(fromCodes[i]).get(toCodes[i]));
+        }
+    }
+
+    @Benchmark
+    public void matrixLookupByCode(Blackhole blackhole) {
+        RateMatrix matrix = snapshot.matrix();
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(matrix.rate(matrix.ordinalOf(fromCodes[i]), matrix.ordinalOf(toCodes[i])));
+        }
+    }
+
+    @Benchmark
+    public void matrixLookupByOrdinal(Blackhole blackhole) {
+        RateMatrix matrix = snapshot.matrix();
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(matrix.rate(fromOrdinals[i], toOrdinals[i]));
+        }
+    }
+
+    @Benchmark
+    public Object nestedMapRebuild() {
+        Map<String, Map<String, BigDecimal>> rebuilt = new ConcurrentHashMap<>();
+        nestedMaps.forEach((base, row) -> rebuilt.put(base, Map.copyOf(row)));
+        return rebuilt;
+    }
+
+    @Benchmark
+    public Object matrixRebuild() {
+        return RatesSnapshot.EMPTY.withRates(nestedMaps, snapshot.refreshedAt());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.currencyapp.config;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RateLookupBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A burst of blocking requests on 200 platform threads versus a virtual thread per request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadingModelBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"100", "200", "400", "1000", "5000"})
+    private int concurrency;
+
+    @Param({"10"})
+    private long blockingMillis;
+
+    private ExchangeRateCache cache;
+    private ExecutorService platformWorkers;
+    private final LongAdder sink = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new ExchangeRateCache();
+        cache.publish(RateLookupBenchmark.sampleTables());
+        platformWorkers = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformWorkers.shutdownNow();
+    }
+
+    @Benchmark
+    public long platformThreads() throws Exception {
+        return runBurst(platformWorkers);
+    }
+
+    @Benchmark
+    public long virtualThreads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return runBurst(executor);
+        }
+    }
+
+    private long runBurst(ExecutorService executor) throws Exception {
+        List<Future<?>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            requests.add(executor.submit(this::handleRequest));
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+        return sink.sum();
+    }
+
+    private Void handleRequest() throws InterruptedException {
+        sink.add(cache.rate("USD", "PLN"));
+        Thread.sleep(blockingMillis);
+        return null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.currencyapp.controller;
+
+import com.example.currencyapp.cache.RateMatrix;
+import com.example.currencyapp.dto.CompactRateTable;
+import com.example.currencyapp.dto.ExchangeRateDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/** JSON versus the CBOR compact table, for one base and for the full table. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatesSerializationBenchmark {
+    private static final String[] CODES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD",
+            "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD",
+            "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "ZAR"};
+
+    private ObjectWriter writer;
+    private ObjectReader listReader;
+    private ObjectWriter bulkWriter;
+    private ObjectReader bulkReader;
+    private ObjectWriter cborWriter;
+    private ObjectReader cborReader;
+    private List<ExchangeRateDto> rates;
+    private Map<String, Map<String, BigDecimal>> bulkRates;
+    private CompactRateTable compactRow;
+    private CompactRateTable compactTable;
+    private byte[] jsonRow;
+    private byte[] jsonTable;
+    private byte[] cborRow;
+    private byte[] cborTable;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<ExchangeRateDto>>() {
+        });
+        listReader = objectMapper.readerFor(new TypeReference<List<ExchangeRateDto>>() {
+        });
+        bulkWriter = objectMapper.writerFor(new TypeReference<Map<String, Map<String, BigDecimal>>>() {
+        });
+        bulkReader = objectMapper.readerFor(new TypeReference<Map<String, Map<String, BigDecimal>>>() {
+        });
+        CBORMapper cborMapper = new CBORMapper();
+        cborWriter = cborMapper.writerFor(CompactRateTable.class);
+        cborReader = cborMapper.readerFor(CompactRateTable.class);
+
+        List<String> codes = new ArrayList<>(List.of(CODES));
+        codes.add("USD");
+        Random random = new Random(7);
+        BigDecimal[][] table = new BigDecimal[codes.size()][CODES.length];
+        for (BigDecimal[] row : table) {
+            for (int quote = 0; quote < row.length; quote++) {
+                row[quote] = BigDecimal.valueOf(random.nextInt(10_000_000) + 1, 5);
+            }
+        }
+
+        int usd = codes.size() - 1;
+        rates = new ArrayList<>();
+        bulkRates = new LinkedHashMap<>();
+        for (int base = 0; base < codes.size(); base++) {
+            Map<String, BigDecimal> row = new LinkedHashMap<>();
+            for (int quote = 0; quote < CODES.length; quote++) {
+                row.put(CODES[quote], table[base][quote]);
+                if (base == usd) {
+                    rates.add(new ExchangeRateDto("USD", CODES[quote], table[base][quote]));
+                }
+            }
+            bulkRates.put(codes.get(base), row);
+        }
+        compactRow = compact(codes, table, new int[]{usd});
+        compactTable = compact(codes, table, IntStream.range(0, codes.size()).toArray());
+
+        jsonRow = writer.writeValueAsBytes(rates);
+        jsonTable = bulkWriter.writeValueAsBytes(bulkRates);
+        cborRow = cborWriter.writeValueAsBytes(compactRow);
+        cborTable = cborWriter.writeValueAsBytes(compactTable);
+        System.out.printf("%nOne base: JSON %d B, CBOR %d B. Full table: JSON %d B, CBOR %d B.%n",
+                jsonRow.length, cborRow.length, jsonTable.length, cborTable.length);
+    }
+
+    @Benchmark
+    public byte[] serializeRateList() throws Exception {
+        return writer.writeValueAsBytes(rates);
+    }
+
+    @Benchmark
+    public Object deserializeRateList() throws Exception {
+        return listReader.readValue(jsonRow);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactRow() throws Exception {
+        return cborWriter.writeValueAsBytes(compactRow);
+    }
+
+    @Benchmark
+    public Object deserializeCompactRow() throws Exception {
+        return cborReader.readValue(cborRow);
+    }
+
+    @Benchmark
+    public byte[] serializeBulkJson() throws Exception {
+        return bulkWriter.writeValueAsBytes(bulkRates);
+    }
+
+    @Benchmark
+    public Object deserializeBulkJson() throws Exception {
+        return bulkReader.readValue(jsonTable);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactTable() throws Exception {
+        return cborWriter.writeValueAsBytes(compactTable);
+    }
+
+    @Benchmark
+    public Object deserializeCompactTable() throws Exception {
+        return cborReader.readValue(cborTable);
+    }
+
+    private static CompactRateTable compact(List<String> codes, BigDecimal[][] table, int[] bases) {
+        int[] quotes = IntStream.range(0, CODES.length).toArray();
+        long[] fixed = new long[bases.length * quotes.length];
+        for (int i = 0; i < bases.length; i++) {
+            for (int j = 0; j < quotes.length; j++) {
+                fixed[i * quotes.length + j] = RateMatrix.toFixed(table[bases[i]][quotes[j]]);
+            }
+        }
+        return new CompactRateTable(1, RateMatrix.SCALE, codes, bases, quotes, fixed);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.currencyapp.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP load generator for a running instance. Arguments: base URL, currency, clients, duration and
+ * {@code rendered} or {@code on-the-fly}.
+ */
+public final class RatesLoadTest {
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private RatesLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String currency = args.length > 1 ? args[1] : "USD";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        Duration duration = args.length > 3 ? Duration.parse("PT" + args[3].toUpperCase()) : Duration.ofSeconds(30);
+        String path = switch (args.length > 4 ? args[4] : "rendered") {
+            case "rendered" -> "/api/v1/currencies/" + currency + "/rates";
+            case "on-the-fly" -> "/api/v1/currencies/rates?bases=" + currency;
+            default -> throw new IllegalArgumentException("Path must be rendered or on-the-fly: " + args[4]);
+        };
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        double allocatedBefore = metric(httpClient, baseUrl, "jvm.gc.memory.allocated");
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> results = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                results.add(workers.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long[] all = results.stream().map(RatesLoadTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        double allocated = metric(httpClient, baseUrl, "jvm.gc.memory.allocated") - allocatedBefore;
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                all.length, errors.get(), all.length / (double) duration.toSeconds());
+        if (all.length > 0) {
+            System.out.printf("latency p50=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+                    millis(percentile(all, 0.50)), millis(percentile(all, 0.99)),
+                    millis(percentile(all, 0.999)), millis(all[all.length - 1]));
+        }
+        // The counter advances at each young collection, so the figure is accurate to about one young generation.
+        System.out.printf("server allocation=%.0f B/request (%.0f MB/s)%n",
+                allocated / (all.length + errors.get()), allocated / duration.toSeconds() / 1_000_000);
+        System.out.printf("server threads live=%.0f peak=%.0f%n",
+                metric(httpClient, baseUrl, "jvm.threads.live"), metric(httpClient, baseUrl, "jvm.threads.peak"));
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double metric(HttpClient httpClient, String baseUrl, String name) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = METRIC_VALUE.matcher(response.body());
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+}
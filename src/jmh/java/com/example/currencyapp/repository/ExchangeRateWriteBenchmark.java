@@ -0,0 +1,88 @@
+package com.example.currencyapp.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Row-by-row inserts versus {@link ExchangeRateBatchWriter}; needs the Postgres from docker-compose.yml. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExchangeRateWriteBenchmark {
+    @Param("jdbc:postgresql://localhost:5432/currency_db?reWriteBatchedInserts=true")
+    public String jdbcUrl;
+
+    @Param({"postgres"})
+    public String user;
+
+    @Param({"postgres"})
+    public String password;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ExchangeRateBatchWriter batchWriter;
+    private Map<String, BigDecimal> rates;
+    private long currencyId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(jdbcUrl, user, password, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        batchWriter = new ExchangeRateBatchWriter(jdbcTemplate, new SimpleMeterRegistry());
+
+        currencyId = jdbcTemplate.queryForObject(
+                "INSERT INTO currencies (code) VALUES ('JMH') ON CONFLICT (code) DO UPDATE SET code = EXCLUDED.code RETURNING id",
+                Long.class);
+        rates = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            rates.put("Q" + i, BigDecimal.valueOf(100_000L + i, 5));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM currencies WHERE id = ?", currencyId);
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public void perRowInserts() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> rates.forEach((code, rate) -> jdbcTemplate.update(
+                "INSERT INTO exchange_rates (currency_id, code, rate, timestamp) VALUES (?, ?, ?, ?)",
+                currencyId, code, rate, now)));
+    }
+
+    @Benchmark
+    public void batchedInserts() {
+        transactionTemplate.executeWithoutResult(status ->
+                batchWriter.insertAll(currencyId, rates, LocalDateTime.now()));
+    }
+}
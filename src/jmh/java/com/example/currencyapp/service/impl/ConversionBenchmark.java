@@ -0,0 +1,89 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.CacheTtlProperties;
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.dto.ConversionBatchRequest;
+import com.example.currencyapp.provider.HedgedRateSource;
+import com.example.currencyapp.rate.CrossRateEngine;
+import com.example.currencyapp.repository.CurrencyRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class ConversionBenchmark {
+    private ExchangeRateCache cache;
+    private ConversionServiceImpl conversionService;
+    private BigDecimal amount;
+    private ConversionBatchRequest batch;
+
+    @Setup
+    public void setUp() {
+        cache = new ExchangeRateCache();
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92"), "PLN", new BigDecimal("4.0884")),
+                "EUR", Map.of("USD", new BigDecimal("1.087"), "PLN", new BigDecimal("4.4439"))));
+        ExchangeRateServiceImpl exchangeRateService = new ExchangeRateServiceImpl(
+                mock(HedgedRateSource.class, withSettings().stubOnly()),
+                mock(CurrencyRepository.class, withSettings().stubOnly()),
+                mock(LatestRateRepository.class, withSettings().stubOnly()),
+                mock(ExchangeRateBatchWriter.class, withSettings().stubOnly()),
+                cache, new SingleFlightLoader(new SimpleMeterRegistry()), new CrossRateEngine("EUR", 10, 6, RoundingMode.HALF_EVEN),
+                new RefreshTaskRunner(8, Duration.ofSeconds(10), Duration.ofSeconds(60)), new CacheTtlProperties(),
+                mock(ExecutorService.class, withSettings().stubOnly()),
+                new StaticListableBeanFactory().getBeanProvider(LeaderElection.class));
+        conversionService = new ConversionServiceImpl(cache, exchangeRateService, 4, RoundingMode.HALF_EVEN, 10_000);
+        amount = new BigDecimal("1234.56");
+
+        List<BigDecimal> amounts = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            amounts.add(BigDecimal.valueOf(i * 37L + 1, 2));
+        }
+        batch = new ConversionBatchRequest("USD", "PLN", amounts);
+    }
+
+    @Benchmark
+    public long rateLookup() {
+        return cache.rate("USD", "PLN");
+    }
+
+    @Benchmark
+    public Object convertSingle() {
+        return conversionService.convert("USD", "PLN", amount);
+    }
+
+    @Benchmark
+    public Object convertBatchOfThousand() {
+        return conversionService.convertAll(batch);
+    }
+}
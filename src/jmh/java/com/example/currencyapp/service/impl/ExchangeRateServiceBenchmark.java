@@ -0,0 +1,121 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.CacheTtlProperties;
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.dto.ExchangeRateDto;
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.entity.Currency;
+import com.example.currencyapp.rate.CrossRateEngine;
+import com.example.currencyapp.provider.HedgedRateSource;
+import com.example.currencyapp.repository.CurrencyRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateServiceBenchmark {
+    static final String[] CODES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "GBP", "HKD", "HUF",
+            "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD", "PHP",
+            "PLN", "RON", "SEK", "SGD", "THB", "TRY", "USD", "ZAR"};
+
+    private ExchangeRateServiceImpl exchangeRateService;
+    private RenderedRatesCache renderedRatesCache;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        HedgedRateSource rateSource = mock(HedgedRateSource.class, withSettings().stubOnly());
+        CurrencyRepository currencyRepository = mock(CurrencyRepository.class, withSettings().stubOnly());
+        LatestRateRepository latestRateRepository = mock(LatestRateRepository.class, withSettings().stubOnly());
+
+        List<Currency> currencies = new ArrayList<>();
+        for (int i = 0; i < CODES.length; i++) {
+            currencies.add(Currency.builder().id((long) i).code(CODES[i]).build());
+        }
+        when(currencyRepository.count()).thenReturn((long) currencies.size());
+        when(currencyRepository.findAll()).thenReturn(currencies);
+        when(rateSource.fetchRates("EUR")).thenReturn(new ExchangeRateResponse("EUR", pivotRates()));
+
+        ExchangeRateBatchWriter exchangeRateBatchWriter = mock(ExchangeRateBatchWriter.class, withSettings().stubOnly());
+
+        exchangeRateService = new ExchangeRateServiceImpl(rateSource, currencyRepository, latestRateRepository,
+                exchangeRateBatchWriter, new ExchangeRateCache(), new SingleFlightLoader(new SimpleMeterRegistry()), new CrossRateEngine("EUR", 10, 6, RoundingMode.HALF_EVEN),
+                new RefreshTaskRunner(8, Duration.ofSeconds(10), Duration.ofSeconds(60)), new CacheTtlProperties(),
+                mock(ExecutorService.class, withSettings().stubOnly()),
+                new StaticListableBeanFactory().getBeanProvider(LeaderElection.class));
+        exchangeRateService.updateAllExchangeRates();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        renderedRatesCache = new RenderedRatesCache(exchangeRateService, objectMapper);
+        writer = objectMapper.writerFor(new TypeReference<List<ExchangeRateDto>>() {
+        });
+    }
+
+    static Map<String, BigDecimal> pivotRates() {
+        Random random = new Random(7);
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String code : CODES) {
+            rates.put(code, BigDecimal.valueOf(random.nextInt(10_000_000) + 1, 5));
+        }
+        return rates;
+    }
+
+    @Benchmark
+    public Object getExchangeRates() {
+        return exchangeRateService.getExchangeRates("USD");
+    }
+
+    @Benchmark
+    public byte[] serializeRatesPerRequest() throws Exception {
+        return writer.writeValueAsBytes(exchangeRateService.getExchangeRates("USD"));
+    }
+
+    @Benchmark
+    public byte[] writeRenderedRates() {
+        RatesSnapshot snapshot = exchangeRateService.getRatesSnapshot("USD");
+        return renderedRatesCache.get(snapshot, "USD").json();
+    }
+
+    @Benchmark
+    public Object refreshAllBases() {
+        return exchangeRateService.updateAllExchangeRates();
+    }
+}
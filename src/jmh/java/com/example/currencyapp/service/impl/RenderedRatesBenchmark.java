@@ -0,0 +1,91 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.CacheTtlProperties;
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.provider.HedgedRateSource;
+import com.example.currencyapp.rate.CrossRateEngine;
+import com.example.currencyapp.repository.CurrencyRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/** Pre-rendered rates body versus serializing it per request; run with {@code -prof gc}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderedRatesBenchmark {
+    private static final String[] CODES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD",
+            "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD",
+            "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "ZAR"};
+
+    private ObjectMapper objectMapper;
+    private ExchangeRateServiceImpl exchangeRateService;
+    private RenderedRatesCache renderedRatesCache;
+    private RatesSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (String code : CODES) {
+            rates.put(code, BigDecimal.valueOf(random.nextInt(10_000_000) + 1, 5));
+        }
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.updateRates("USD", rates);
+        snapshot = cache.snapshot();
+
+        exchangeRateService = new ExchangeRateServiceImpl(
+                mock(HedgedRateSource.class, withSettings().stubOnly()),
+                mock(CurrencyRepository.class, withSettings().stubOnly()),
+                mock(LatestRateRepository.class, withSettings().stubOnly()),
+                mock(ExchangeRateBatchWriter.class, withSettings().stubOnly()),
+                cache, new SingleFlightLoader(new SimpleMeterRegistry()), new CrossRateEngine("EUR", 10, 6, RoundingMode.HALF_EVEN),
+                new RefreshTaskRunner(8, Duration.ofSeconds(10), Duration.ofSeconds(60)), new CacheTtlProperties(),
+                mock(ExecutorService.class, withSettings().stubOnly()),
+                new StaticListableBeanFactory().getBeanProvider(LeaderElection.class));
+        objectMapper = new ObjectMapper();
+        renderedRatesCache = new RenderedRatesCache(exchangeRateService, objectMapper);
+        renderedRatesCache.get(snapshot, "USD");
+    }
+
+    @Benchmark
+    public byte[] preRendered() {
+        return renderedRatesCache.get(snapshot, "USD").json();
+    }
+
+    @Benchmark
+    public byte[] onTheFly() throws Exception {
+        return objectMapper.writeValueAsBytes(exchangeRateService.getExchangeRates(snapshot, "USD"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.currencyapp.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "cache.ttl")
+public class CacheTtlProperties {
+    private Duration soft = Duration.ofMinutes(65);
+    private Duration hard = Duration.ofHours(3);
+    private Map<String, Ttl> overrides = new HashMap<>();
+
+    public Duration softFor(String baseCurrency) {
+        Ttl override = overrides.get(baseCurrency);
+        return override != null && override.getSoft() != null ? override.getSoft() : soft;
+    }
+
+    public Duration hardFor(String baseCurrency) {
+        Ttl override = overrides.get(baseCurrency);
+        return override != null && override.getHard() != null ? override.getHard() : hard;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ttl {
+        private Duration soft;
+        private Duration hard;
+    }
+}
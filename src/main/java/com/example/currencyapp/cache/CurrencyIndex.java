@@ -0,0 +1,53 @@
+package com.example.currencyapp.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class CurrencyIndex {
+    public static final int UNKNOWN = -1;
+
+    static final CurrencyIndex EMPTY = new CurrencyIndex(new String[0]);
+
+    private final String[] codes;
+    private final Map<String, Integer> ordinals;
+
+    private CurrencyIndex(String[] codes) {
+        this.codes = codes;
+        this.ordinals = new HashMap<>(codes.length * 2);
+        for (int ordinal = 0; ordinal < codes.length; ordinal++) {
+            ordinals.put(codes[ordinal], ordinal);
+        }
+    }
+
+    public int ordinalOf(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal == null ? UNKNOWN : ordinal;
+    }
+
+    public String codeOf(int ordinal) {
+        return codes[ordinal];
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public List<String> codes() {
+        return List.of(codes);
+    }
+
+    static CurrencyIndex of(List<String> codes) {
+        return codes.isEmpty() ? EMPTY : new CurrencyIndex(codes.toArray(String[]::new));
+    }
+
+    CurrencyIndex with(Collection<String> newCodes) {
+        Set<String> extended = new LinkedHashSet<>(Arrays.asList(codes));
+        newCodes.stream().sorted().forEach(extended::add);
+        return extended.size() == codes.length ? this : new CurrencyIndex(extended.toArray(String[]::new));
+    }
+}
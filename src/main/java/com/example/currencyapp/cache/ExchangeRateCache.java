@@ -1,35 +1,144 @@
 package com.example.currencyapp.cache;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 @Slf4j
 public class ExchangeRateCache {
-    private final Map<String, Map<String, BigDecimal>> cache = new ConcurrentHashMap<>();
+    private final AtomicReference<RatesSnapshot> current = new AtomicReference<>(RatesSnapshot.EMPTY);
+    private final Clock clock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ExchangeRateCache() {
+        this(Clock.systemUTC(), event -> {
+        });
+    }
+
+    @Autowired
+    public ExchangeRateCache(ApplicationEventPublisher eventPublisher) {
+        this(Clock.systemUTC(), eventPublisher);
+    }
+
+    ExchangeRateCache(Clock clock, ApplicationEventPublisher eventPublisher) {
+        this.clock = clock;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public RatesSnapshot snapshot() {
+        return current.get();
+    }
+
+    public long rate(String fromCurrency, String toCurrency) {
+        RateMatrix matrix = current.get().matrix();
+        int from = matrix.ordinalOf(fromCurrency);
+        int to = matrix.ordinalOf(toCurrency);
+        long rate = matrix.isBase(from) && to != CurrencyIndex.UNKNOWN ? matrix.rate(from, to) : RateMatrix.MISSING;
+        (rate == RateMatrix.MISSING ? misses : hits).increment();
+        return rate;
+    }
+
+    /** Direct or inverse rate, counted as a single hit or miss. */
+    public BigDecimal rateOrInverse(String fromCurrency, String toCurrency) {
+        BigDecimal rate = current.get().rateOrInverse(fromCurrency, toCurrency);
+        (rate == null ? misses : hits).increment();
+        return rate;
+    }
 
     public Map<String, BigDecimal> getRatesForCurrency(String baseCurrency) {
-        return cache.get(baseCurrency);
+        return current.get().ratesFor(baseCurrency);
     }
 
     public void updateRates(String baseCurrency, Map<String, BigDecimal> rates) {
-        cache.put(baseCurrency, rates);
-        log.info("Exchange rates for {} updated in memory.", baseCurrency);
+        publish(Map.of(baseCurrency, rates));
+    }
+
+    public void publish(Map<String, Map<String, BigDecimal>> updatedRates) {
+        publish(updatedRates, false);
+    }
+
+    public void publishFromPeer(Map<String, Map<String, BigDecimal>> updatedRates) {
+        publish(updatedRates, true);
+    }
+
+    /** Installs a snapshot from an earlier run; only an empty cache is replaced. */
+    public boolean restore(RatesSnapshot snapshot) {
+        if (!current.compareAndSet(RatesSnapshot.EMPTY, snapshot)) {
+            return false;
+        }
+        eventPublisher.publishEvent(
+                new ExchangeRatesUpdatedEvent(snapshot, Set.copyOf(snapshot.matrix().baseCodes()), true));
+        return true;
+    }
+
+    private void publish(Map<String, Map<String, BigDecimal>> updatedRates, boolean replicated) {
+        if (updatedRates.isEmpty()) {
+            return;
+        }
+        Instant now = clock.instant();
+        RatesSnapshot published = current.updateAndGet(snapshot -> snapshot.withRates(updatedRates, now));
+        log.debug("Exchange rates for {} published in memory as version {}.", updatedRates.keySet(), published.version());
+        eventPublisher.publishEvent(
+                new ExchangeRatesUpdatedEvent(published, Set.copyOf(updatedRates.keySet()), replicated));
+    }
+
+    /** Restarts the TTL of bases found unchanged upstream, keeping their versions. */
+    public void markRevalidated(Set<String> baseCurrencies) {
+        if (baseCurrencies.isEmpty()) {
+            return;
+        }
+        Instant now = clock.instant();
+        RatesSnapshot revalidated = current.updateAndGet(snapshot -> snapshot.withRevalidated(baseCurrencies, now));
+        log.debug("Exchange rates for {} revalidated unchanged.", baseCurrencies);
+        eventPublisher.publishEvent(new ExchangeRatesRevalidatedEvent(revalidated, Set.copyOf(baseCurrencies)));
+    }
+
+    public Freshness freshness(String baseCurrency, Duration softTtl, Duration hardTtl) {
+        RateMatrix matrix = current.get().matrix();
+        int base = matrix.ordinalOf(baseCurrency);
+        if (!matrix.isBase(base)) {
+            misses.increment();
+            return Freshness.MISSING;
+        }
+        hits.increment();
+        long ageMillis = clock.millis() - matrix.refreshedAtMillis(base);
+        if (ageMillis >= hardTtl.toMillis()) {
+            return Freshness.EXPIRED;
+        }
+        return ageMillis >= softTtl.toMillis() ? Freshness.STALE : Freshness.FRESH;
     }
 
     public boolean hasRates(String baseCurrency) {
-        return cache.containsKey(baseCurrency);
+        return current.get().hasRates(baseCurrency);
+    }
+
+    public List<String> getBaseCurrencies() {
+        return current.get().matrix().baseCodes();
+    }
+
+    public long hitCount() {
+        return hits.sum();
     }
 
-    public Map<String, Map<String, BigDecimal>> getAllRates() {
-        return cache;
+    public long missCount() {
+        return misses.sum();
     }
 
     public boolean isEmpty() {
-        return cache.isEmpty();
+        return current.get().matrix().baseCodes().isEmpty();
     }
 }
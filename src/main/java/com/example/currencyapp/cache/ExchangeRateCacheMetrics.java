@@ -0,0 +1,67 @@
+package com.example.currencyapp.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/** Cache lookup, size and per-base age metrics. */
+@Component
+public class ExchangeRateCacheMetrics {
+    private final ExchangeRateCache cache;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public ExchangeRateCacheMetrics(ExchangeRateCache cache, MeterRegistry meterRegistry) {
+        this(cache, meterRegistry, Clock.systemUTC());
+    }
+
+    ExchangeRateCacheMetrics(ExchangeRateCache cache, MeterRegistry meterRegistry, Clock clock) {
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+
+        FunctionCounter.builder("exchange_rates.cache.lookups", cache, ExchangeRateCache::hitCount)
+                .description("Rate cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange_rates.cache.lookups", cache, ExchangeRateCache::missCount)
+                .description("Rate cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("exchange_rates.cache.bases", cache, c -> c.getBaseCurrencies().size())
+                .description("Base currencies held in the rate cache")
+                .register(meterRegistry);
+        Gauge.builder("exchange_rates.cache.currencies", cache, c -> c.snapshot().matrix().size())
+                .description("Currencies known to the rate cache")
+                .register(meterRegistry);
+        Gauge.builder("exchange_rates.cache.version", cache, c -> c.snapshot().version())
+                .description("Version of the published rate snapshot")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        event.changedBases().forEach(this::registerAgeGauge);
+    }
+
+    private void registerAgeGauge(String baseCurrency) {
+        Gauge.builder("exchange_rates.cache.rate_age", cache, c -> ageSeconds(c, baseCurrency))
+                .description("Seconds since the rates of the base were refreshed")
+                .baseUnit("seconds")
+                .tag("base", baseCurrency)
+                .register(meterRegistry);
+    }
+
+    private double ageSeconds(ExchangeRateCache cache, String baseCurrency) {
+        RateMatrix matrix = cache.snapshot().matrix();
+        int base = matrix.ordinalOf(baseCurrency);
+        if (!matrix.isBase(base)) {
+            return Double.NaN;
+        }
+        return (clock.millis() - matrix.refreshedAtMillis(base)) / 1000.0;
+    }
+}
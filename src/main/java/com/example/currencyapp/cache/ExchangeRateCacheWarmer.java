@@ -0,0 +1,89 @@
+package com.example.currencyapp.cache;
+
+import com.example.currencyapp.repository.LatestRateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/** Loads the latest rates at startup, or reconciles a restored snapshot in the background. */
+@Component
+@Slf4j
+public class ExchangeRateCacheWarmer {
+    private final LatestRateRepository latestRateRepository;
+    private final ExchangeRateCache cache;
+    private final Executor reconcileExecutor;
+    private final Timer warmUpTimer;
+    private final Timer reconcileTimer;
+
+    @Autowired
+    public ExchangeRateCacheWarmer(LatestRateRepository latestRateRepository, ExchangeRateCache cache,
+                                   MeterRegistry meterRegistry) {
+        this(latestRateRepository, cache, meterRegistry,
+                task -> Thread.ofVirtual().name("cache-reconcile").start(task));
+    }
+
+    ExchangeRateCacheWarmer(LatestRateRepository latestRateRepository, ExchangeRateCache cache,
+                            MeterRegistry meterRegistry, Executor reconcileExecutor) {
+        this.latestRateRepository = latestRateRepository;
+        this.cache = cache;
+        this.reconcileExecutor = reconcileExecutor;
+        this.warmUpTimer = Timer.builder("exchange_rates.cache.warmup")
+                .description("Time spent loading the rate cache at startup")
+                .register(meterRegistry);
+        this.reconcileTimer = Timer.builder("exchange_rates.cache.reconcile")
+                .description("Time spent reconciling a restored rate cache with the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!cache.isEmpty()) {
+            reconcileExecutor.execute(this::reconcile);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            Map<String, Map<String, BigDecimal>> ratesByBase = latestRateRepository.findAllRatesByBaseCode();
+            cache.publish(ratesByBase);
+            log.info("Exchange rate cache warmed up with {} currencies in {} ms.", ratesByBase.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (Exception e) {
+            log.error("Failed to warm up exchange rate cache: {}", e.getMessage());
+        } finally {
+            warmUpTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Republishes only the bases whose stored rows differ from the restored ones. */
+    void reconcile() {
+        long startNanos = System.nanoTime();
+        try {
+            RatesSnapshot restored = cache.snapshot();
+            Map<String, Map<String, BigDecimal>> changed = new HashMap<>();
+            latestRateRepository.findAllRatesByBaseCode().forEach((base, rates) -> {
+                Map<String, BigDecimal> current = restored.ratesFor(base);
+                if (current == null || current.size() != rates.size()
+                        || !restored.changedRates(base, rates).isEmpty()) {
+                    changed.put(base, rates);
+                }
+            });
+            cache.publish(changed);
+            log.info("Restored exchange rate cache reconciled with the database in {} ms, {} bases changed.",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), changed.size());
+        } catch (Exception e) {
+            log.error("Failed to reconcile restored exchange rate cache: {}", e.getMessage());
+        } finally {
+            reconcileTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.currencyapp.cache;
+
+import java.util.Set;
+
+/** Published when bases were found unchanged upstream; only their refresh times moved. */
+public record ExchangeRatesRevalidatedEvent(RatesSnapshot snapshot, Set<String> bases) {
+}
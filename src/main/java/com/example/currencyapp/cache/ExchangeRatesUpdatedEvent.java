@@ -0,0 +1,11 @@
+package com.example.currencyapp.cache;
+
+import java.util.Set;
+
+/** Published after every cache update; {@code replicated} marks state produced elsewhere. */
+public record ExchangeRatesUpdatedEvent(RatesSnapshot snapshot, Set<String> changedBases, boolean replicated) {
+
+    public ExchangeRatesUpdatedEvent(RatesSnapshot snapshot, Set<String> changedBases) {
+        this(snapshot, changedBases, false);
+    }
+}
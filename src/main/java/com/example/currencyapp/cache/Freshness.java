@@ -0,0 +1,8 @@
+package com.example.currencyapp.cache;
+
+public enum Freshness {
+    MISSING,
+    FRESH,
+    STALE,
+    EXPIRED
+}
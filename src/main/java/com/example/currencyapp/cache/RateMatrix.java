@@ -0,0 +1,176 @@
+package com.example.currencyapp.cache;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Dense {@code n x n} table of fixed-point rates by currency ordinal, with per-row versions and times. */
+public final class RateMatrix {
+    public static final int SCALE = 9;
+    public static final long SCALE_FACTOR = 1_000_000_000L;
+    public static final long MISSING = 0L;
+
+    static final RateMatrix EMPTY = new RateMatrix(CurrencyIndex.EMPTY, new long[0], new long[0], new long[0],
+            new long[0]);
+
+    private final CurrencyIndex index;
+    private final long[] rates;
+    private final long[] rowVersions;
+    private final long[] refreshedAtMillis;
+    private final long[] modifiedAtMillis;
+    private final long[] rowHashes;
+    private final List<String> baseCodes;
+
+    private RateMatrix(CurrencyIndex index, long[] rates, long[] rowVersions, long[] refreshedAtMillis,
+                       long[] modifiedAtMillis) {
+        this.index = index;
+        this.rates = rates;
+        this.rowVersions = rowVersions;
+        this.refreshedAtMillis = refreshedAtMillis;
+        this.modifiedAtMillis = modifiedAtMillis;
+        this.rowHashes = new long[rowVersions.length];
+        List<String> codes = new ArrayList<>();
+        for (int ordinal = 0; ordinal < rowVersions.length; ordinal++) {
+            if (rowVersions[ordinal] != 0) {
+                codes.add(index.codeOf(ordinal));
+                rowHashes[ordinal] = hashRow(ordinal);
+            }
+        }
+        this.baseCodes = List.copyOf(codes);
+    }
+
+    public CurrencyIndex index() {
+        return index;
+    }
+
+    public int ordinalOf(String code) {
+        return index.ordinalOf(code);
+    }
+
+    public String codeOf(int ordinal) {
+        return index.codeOf(ordinal);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean isBase(int ordinal) {
+        return ordinal >= 0 && ordinal < rowVersions.length && rowVersions[ordinal] != 0;
+    }
+
+    public long rowVersion(int base) {
+        return rowVersions[base];
+    }
+
+    public long refreshedAtMillis(int base) {
+        return refreshedAtMillis[base];
+    }
+
+    public long modifiedAtMillis(int base) {
+        return modifiedAtMillis[base];
+    }
+
+    /** Content hash of a base row; unlike the row version it survives restarts. */
+    public long rowHash(int base) {
+        return rowHashes[base];
+    }
+
+    public long rate(int from, int to) {
+        return rates[from * index.size() + to];
+    }
+
+    public List<String> baseCodes() {
+        return baseCodes;
+    }
+
+    public Map<String, BigDecimal> row(int base) {
+        Map<String, BigDecimal> row = new HashMap<>();
+        int size = index.size();
+        for (int quote = 0; quote < size; quote++) {
+            long rate = rates[base * size + quote];
+            if (rate != MISSING) {
+                row.put(index.codeOf(quote), toDecimal(rate));
+            }
+        }
+        return Map.copyOf(row);
+    }
+
+    public static long toFixed(BigDecimal rate) {
+        return rate.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long rate) {
+        BigDecimal decimal = BigDecimal.valueOf(rate, SCALE).stripTrailingZeros();
+        return decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+    }
+
+    private long hashRow(int base) {
+        int size = index.size();
+        long hash = 1;
+        for (int quote = 0; quote < size; quote++) {
+            long rate = rates[base * size + quote];
+            if (rate != MISSING) {
+                hash = hash * 1_000_003 + index.codeOf(quote).hashCode();
+                hash = hash * 1_000_003 + rate;
+            }
+        }
+        return hash;
+    }
+
+    static RateMatrix of(List<String> codes, long[] rates, long[] rowVersions, long[] refreshedAtMillis,
+                         long[] modifiedAtMillis) {
+        if (rowVersions.length != codes.size() || refreshedAtMillis.length != codes.size()
+                || modifiedAtMillis.length != codes.size() || rates.length != codes.size() * codes.size()) {
+            throw new IllegalArgumentException("Rate matrix dimensions do not match " + codes.size() + " currencies.");
+        }
+        return new RateMatrix(CurrencyIndex.of(codes), rates, rowVersions, refreshedAtMillis, modifiedAtMillis);
+    }
+
+    RateMatrix withRefreshedAt(Set<String> baseCodes, long nowMillis) {
+        long[] newRefreshedAt = refreshedAtMillis.clone();
+        for (String baseCode : baseCodes) {
+            int base = index.ordinalOf(baseCode);
+            if (isBase(base)) {
+                newRefreshedAt[base] = nowMillis;
+            }
+        }
+        return new RateMatrix(index, rates, rowVersions, newRefreshedAt, modifiedAtMillis);
+    }
+
+    RateMatrix withRows(Map<String, Map<String, BigDecimal>> updatedRows, long version, long nowMillis) {
+        Set<String> codes = new HashSet<>(updatedRows.keySet());
+        updatedRows.values().forEach(row -> codes.addAll(row.keySet()));
+        CurrencyIndex newIndex = index.with(codes);
+
+        int oldSize = index.size();
+        int newSize = newIndex.size();
+        long[] newRates = new long[newSize * newSize];
+        long[] newRowVersions = new long[newSize];
+        long[] newRefreshedAt = new long[newSize];
+        long[] newModifiedAt = new long[newSize];
+        for (int base = 0; base < oldSize; base++) {
+            System.arraycopy(rates, base * oldSize, newRates, base * newSize, oldSize);
+            newRowVersions[base] = rowVersions[base];
+            newRefreshedAt[base] = refreshedAtMillis[base];
+            newModifiedAt[base] = modifiedAtMillis[base];
+        }
+
+        updatedRows.forEach((baseCode, row) -> {
+            int base = newIndex.ordinalOf(baseCode);
+            int offset = base * newSize;
+            Arrays.fill(newRates, offset, offset + newSize, MISSING);
+            row.forEach((quoteCode, rate) -> newRates[offset + newIndex.ordinalOf(quoteCode)] = toFixed(rate));
+            newRowVersions[base] = version;
+            newRefreshedAt[base] = nowMillis;
+            newModifiedAt[base] = nowMillis;
+        });
+        return new RateMatrix(newIndex, newRates, newRowVersions, newRefreshedAt, newModifiedAt);
+    }
+}
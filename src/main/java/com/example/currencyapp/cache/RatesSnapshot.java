@@ -0,0 +1,97 @@
+package com.example.currencyapp.cache;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public record RatesSnapshot(long version, Instant refreshedAt, RateMatrix matrix) {
+
+    static final RatesSnapshot EMPTY = new RatesSnapshot(0, Instant.EPOCH, RateMatrix.EMPTY);
+
+    public boolean hasRates(String baseCurrency) {
+        return matrix.isBase(matrix.ordinalOf(baseCurrency));
+    }
+
+    public Map<String, BigDecimal> ratesFor(String baseCurrency) {
+        int base = matrix.ordinalOf(baseCurrency);
+        return matrix.isBase(base) ? matrix.row(base) : null;
+    }
+
+    public Instant refreshedAt(String baseCurrency) {
+        int base = matrix.ordinalOf(baseCurrency);
+        return matrix.isBase(base) ? Instant.ofEpochMilli(matrix.refreshedAtMillis(base)) : null;
+    }
+
+    /** When the base's rates last changed; revalidation does not move it. */
+    public Instant modifiedAt(String baseCurrency) {
+        int base = matrix.ordinalOf(baseCurrency);
+        return matrix.isBase(base) ? Instant.ofEpochMilli(matrix.modifiedAtMillis(base)) : null;
+    }
+
+    public long rowVersion(String baseCurrency) {
+        int base = matrix.ordinalOf(baseCurrency);
+        return matrix.isBase(base) ? matrix.rowVersion(base) : 0;
+    }
+
+    public long rowHash(String baseCurrency) {
+        int base = matrix.ordinalOf(baseCurrency);
+        return matrix.isBase(base) ? matrix.rowHash(base) : 0;
+    }
+
+    /** The {@code from -> to} rate, its inverse when only {@code to} is a base, or {@code null}. */
+    public BigDecimal rateOrInverse(String from, String to) {
+        int fromOrdinal = matrix.ordinalOf(from);
+        int toOrdinal = matrix.ordinalOf(to);
+        if (fromOrdinal == CurrencyIndex.UNKNOWN || toOrdinal == CurrencyIndex.UNKNOWN) {
+            return null;
+        }
+        if (matrix.isBase(fromOrdinal) && matrix.rate(fromOrdinal, toOrdinal) != RateMatrix.MISSING) {
+            return RateMatrix.toDecimal(matrix.rate(fromOrdinal, toOrdinal));
+        }
+        if (matrix.isBase(toOrdinal) && matrix.rate(toOrdinal, fromOrdinal) != RateMatrix.MISSING) {
+            return BigDecimal.valueOf(RateMatrix.SCALE_FACTOR)
+                    .divide(BigDecimal.valueOf(matrix.rate(toOrdinal, fromOrdinal)), RateMatrix.SCALE, RoundingMode.HALF_EVEN);
+        }
+        return null;
+    }
+
+    /** Quotes in {@code rates} that differ from or are missing in the base's row. */
+    public Map<String, BigDecimal> changedRates(String baseCurrency, Map<String, BigDecimal> rates) {
+        int base = matrix.ordinalOf(baseCurrency);
+        if (!matrix.isBase(base)) {
+            return rates;
+        }
+        Map<String, BigDecimal> changed = new HashMap<>();
+        rates.forEach((quoteCode, rate) -> {
+            int quote = matrix.ordinalOf(quoteCode);
+            if (quote == CurrencyIndex.UNKNOWN || matrix.rate(base, quote) != RateMatrix.toFixed(rate)) {
+                changed.put(quoteCode, rate);
+            }
+        });
+        return changed;
+    }
+
+    /** Quotes in the base's row that are absent from {@code rates}. */
+    public Set<String> removedQuotes(String baseCurrency, Map<String, BigDecimal> rates) {
+        Map<String, BigDecimal> cached = ratesFor(baseCurrency);
+        if (cached == null) {
+            return Set.of();
+        }
+        Set<String> removed = new HashSet<>(cached.keySet());
+        removed.removeAll(rates.keySet());
+        return removed;
+    }
+
+    RatesSnapshot withRevalidated(Set<String> baseCurrencies, Instant now) {
+        return new RatesSnapshot(version, refreshedAt, matrix.withRefreshedAt(baseCurrencies, now.toEpochMilli()));
+    }
+
+    RatesSnapshot withRates(Map<String, Map<String, BigDecimal>> updatedRates, Instant now) {
+        long nextVersion = version + 1;
+        return new RatesSnapshot(nextVersion, now, matrix.withRows(updatedRates, nextVersion, now.toEpochMilli()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.currencyapp.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/** Runs at most one load per key; concurrent callers share its result. */
+@Component
+public class SingleFlightLoader {
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightLoader(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V load(String namespace, String key, Supplier<V> loader) {
+        FlightKey flightKey = new FlightKey(namespace, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            counter(namespace, "coalesced").increment();
+            return (V) await(existing);
+        }
+
+        counter(namespace, "leader").increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String namespace, String role) {
+        return Counter.builder("exchange_rates.single_flight.loads")
+                .tag("namespace", namespace)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private record FlightKey(String namespace, String key) {
+    }
+}
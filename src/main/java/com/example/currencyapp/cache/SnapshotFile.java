@@ -0,0 +1,126 @@
+package com.example.currencyapp.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/** Binary image of a {@link RatesSnapshot} with a CRC32C trailer, replaced atomically. */
+final class SnapshotFile {
+    static final int MAGIC = 0x52415445;
+    static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 4 + Long.BYTES * 2;
+    private static final int MAX_CURRENCIES = 4096;
+
+    private SnapshotFile() {
+    }
+
+    static void write(RatesSnapshot snapshot, Path path) throws IOException {
+        RateMatrix matrix = snapshot.matrix();
+        int size = matrix.size();
+        List<byte[]> codes = new ArrayList<>(size);
+        long length = HEADER_BYTES + (long) Long.BYTES * (3L * size + (long) size * size) + Long.BYTES;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            byte[] code = matrix.codeOf(ordinal).getBytes(StandardCharsets.UTF_8);
+            codes.add(code);
+            length += Short.BYTES + code.length;
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                buffer.putInt(MAGIC).putInt(FORMAT_VERSION)
+                        .putLong(snapshot.version())
+                        .putLong(snapshot.refreshedAt().getEpochSecond()).putInt(snapshot.refreshedAt().getNano())
+                        .putInt(size);
+                for (byte[] code : codes) {
+                    buffer.putShort((short) code.length).put(code);
+                }
+                for (int base = 0; base < size; base++) {
+                    buffer.putLong(matrix.rowVersion(base)).putLong(matrix.refreshedAtMillis(base))
+                            .putLong(matrix.modifiedAtMillis(base));
+                }
+                for (int base = 0; base < size; base++) {
+                    for (int quote = 0; quote < size; quote++) {
+                        buffer.putLong(matrix.rate(base, quote));
+                    }
+                }
+                buffer.putLong(checksum(buffer, buffer.position()));
+                buffer.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static RatesSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + Long.BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file has an invalid length of " + length + " bytes.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            int payload = (int) length - Long.BYTES;
+            if (buffer.getLong(payload) != checksum(buffer, payload)) {
+                throw new IOException("Snapshot file checksum does not match.");
+            }
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Snapshot file has an unsupported format.");
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != 1 && formatVersion != FORMAT_VERSION) {
+                throw new IOException("Snapshot file has an unsupported format.");
+            }
+            long version = buffer.getLong();
+            Instant refreshedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            int size = buffer.getInt();
+            if (size < 0 || size > MAX_CURRENCIES) {
+                throw new IOException("Snapshot file declares " + size + " currencies.");
+            }
+
+            List<String> codes = new ArrayList<>(size);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                byte[] code = new byte[buffer.getShort()];
+                buffer.get(code);
+                codes.add(new String(code, StandardCharsets.UTF_8));
+            }
+            long[] rowVersions = new long[size];
+            long[] refreshedAtMillis = new long[size];
+            long[] modifiedAtMillis = new long[size];
+            for (int base = 0; base < size; base++) {
+                rowVersions[base] = buffer.getLong();
+                refreshedAtMillis[base] = buffer.getLong();
+                modifiedAtMillis[base] = formatVersion == 1 ? refreshedAtMillis[base] : buffer.getLong();
+            }
+            long[] rates = new long[size * size];
+            buffer.asLongBuffer().get(rates);
+            if (buffer.position() + (long) Long.BYTES * rates.length != payload) {
+                throw new IOException("Snapshot file has trailing bytes.");
+            }
+            return new RatesSnapshot(version, refreshedAt, RateMatrix.of(codes, rates, rowVersions, refreshedAtMillis,
+                    modifiedAtMillis));
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot file is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.currencyapp.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** Restores the cache from a {@link SnapshotFile} at startup and writes every change back. */
+@Component
+@ConditionalOnProperty(name = "cache.snapshot-file.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SnapshotFileStore {
+    private final ExchangeRateCache cache;
+    private final Path path;
+    private final AtomicBoolean writeQueued = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("snapshot-file-writer").daemon().factory());
+    private volatile RatesSnapshot written;
+    private volatile boolean restored;
+
+    public SnapshotFileStore(ExchangeRateCache cache,
+                             @Value("${cache.snapshot-file.path:data/rates.snapshot}") Path path) {
+        this.cache = cache;
+        this.path = path;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!Files.exists(path)) {
+            log.info("No rate snapshot file at {}, the cache will be loaded from the database.", path);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            RatesSnapshot snapshot = SnapshotFile.read(path);
+            if (cache.restore(snapshot)) {
+                written = snapshot;
+                restored = true;
+                log.info("Restored {} base currencies (version {}) from {} in {} ms.",
+                        snapshot.matrix().baseCodes().size(), snapshot.version(), path,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+        } catch (IOException e) {
+            log.warn("Ignoring rate snapshot file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /** Whether the cache was seeded from the file at startup. */
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @EventListener
+    public void onRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        scheduleWrite();
+    }
+
+    @EventListener
+    public void onRatesRevalidated(ExchangeRatesRevalidatedEvent event) {
+        scheduleWrite();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void scheduleWrite() {
+        if (writeQueued.compareAndSet(false, true)) {
+            writer.execute(this::writeLatest);
+        }
+    }
+
+    private void writeLatest() {
+        writeQueued.set(false);
+        RatesSnapshot snapshot = cache.snapshot();
+        if (snapshot == written) {
+            return;
+        }
+        try {
+            SnapshotFile.write(snapshot, path);
+            written = snapshot;
+            log.debug("Rate snapshot version {} written to {}.", snapshot.version(), path);
+        } catch (IOException e) {
+            log.error("Failed to write rate snapshot file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 
-@FeignClient(name = "exchangeRatesClient", url = "${frankfurter.url}")
+@FeignClient(name = "exchangeRatesClient", url = "${frankfurter.url}", primary = false, qualifiers = "frankfurterFeignClient")
 public interface ExchangeRatesClient {
     @GetMapping("/latest")
     ExchangeRateResponse getExchangeRates(@RequestParam("base") String baseCurrency);
@@ -0,0 +1,37 @@
+package com.example.currencyapp.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "frankfurter.resilience")
+public class ExchangeRatesClientProperties {
+    private Retry retry = new Retry();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Data
+    public static class Retry {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private double multiplier = 2.0;
+        private double jitter = 0.5;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private float failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 10;
+        private Duration maxWait = Duration.ZERO;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.currencyapp.client;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeoutException;
+
+/** Retry, circuit breaker and bulkhead shared by the Frankfurter providers. */
+@Component
+@Getter
+@Slf4j
+public class ExchangeRatesResilience {
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ExchangeRatesResilience(ExchangeRatesClientProperties properties) {
+        ExchangeRatesClientProperties.Retry retryProperties = properties.getRetry();
+        this.retry = Retry.of("exchangeRatesClient", RetryConfig.custom()
+                .maxAttempts(retryProperties.getMaxAttempts())
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        retryProperties.getInitialBackoff(), retryProperties.getMultiplier(), retryProperties.getJitter()))
+                .retryOnException(ExchangeRatesResilience::isTransient)
+                .build());
+
+        ExchangeRatesClientProperties.CircuitBreaker circuitBreakerProperties = properties.getCircuitBreaker();
+        this.circuitBreaker = CircuitBreaker.of("exchangeRatesClient", CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreakerProperties.getFailureRateThreshold())
+                .slidingWindowSize(circuitBreakerProperties.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreakerProperties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(circuitBreakerProperties.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(circuitBreakerProperties.getPermittedCallsInHalfOpenState())
+                .recordException(ExchangeRatesResilience::isTransient)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Exchange rates client circuit breaker: {}", event.getStateTransition()));
+
+        ExchangeRatesClientProperties.Bulkhead bulkheadProperties = properties.getBulkhead();
+        this.bulkhead = Bulkhead.of("exchangeRatesClient", BulkheadConfig.custom()
+                .maxConcurrentCalls(bulkheadProperties.getMaxConcurrentCalls())
+                .maxWaitDuration(bulkheadProperties.getMaxWait())
+                .build());
+    }
+
+    /** Connection failures, timeouts, 429 and 5xx responses are retryable. */
+    public static boolean isTransient(Throwable e) {
+        if (e instanceof FeignException feignException) {
+            return isTransientStatus(feignException.status());
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return isTransientStatus(responseException.getStatusCode().value());
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    private static boolean isTransientStatus(int status) {
+        return status < 400 || status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.currencyapp.client;
+
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.ExternalServiceException;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/** Feign client behind {@link ExchangeRatesResilience}, with errors translated. */
+@Component
+@Primary
+@Slf4j
+public class ResilientExchangeRatesClient implements ExchangeRatesClient {
+    private final ExchangeRatesClient delegate;
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientExchangeRatesClient(@Qualifier("frankfurterFeignClient") ExchangeRatesClient delegate,
+                                        ExchangeRatesResilience resilience) {
+        this.delegate = delegate;
+        this.retry = resilience.getRetry();
+        this.circuitBreaker = resilience.getCircuitBreaker();
+        this.bulkhead = resilience.getBulkhead();
+    }
+
+    @Override
+    public ExchangeRateResponse getExchangeRates(String baseCurrency) {
+        Supplier<ExchangeRateResponse> call = Bulkhead.decorateSupplier(bulkhead,
+                () -> delegate.getExchangeRates(baseCurrency));
+        call = CircuitBreaker.decorateSupplier(circuitBreaker, call);
+        call = Retry.decorateSupplier(retry, call);
+        try {
+            return call.get();
+        } catch (CallNotPermittedException e) {
+            throw new ExternalServiceException("External service is unavailable.");
+        } catch (BulkheadFullException e) {
+            throw new ExternalServiceException("Too many concurrent calls to the external service.");
+        } catch (FeignException e) {
+            if (!ExchangeRatesResilience.isTransient(e)) {
+                throw new CurrencyNotFoundException("Currency not found in external service: " + baseCurrency);
+            }
+            log.warn("Exchange rates request for {} failed: {}", baseCurrency, e.getMessage());
+            throw new ExternalServiceException("External service error.");
+        }
+    }
+
+    CircuitBreaker.State circuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.currencyapp.cluster;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.repository.LatestRateRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/** Announces changed bases with {@code NOTIFY} and reloads the bases peers announce. */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterCacheSync {
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DedicatedConnections connections;
+    private final JdbcTemplate jdbcTemplate;
+    private final LatestRateRepository latestRateRepository;
+    private final ExchangeRateCache cache;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("cluster-notifier").daemon().factory());
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterCacheSync(DedicatedConnections connections, JdbcTemplate jdbcTemplate,
+                            LatestRateRepository latestRateRepository, ExchangeRateCache cache,
+                            ClusterProperties clusterProperties) {
+        if (!CHANNEL_NAME.matcher(clusterProperties.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid cluster channel name: " + clusterProperties.getChannel());
+        }
+        this.connections = connections;
+        this.jdbcTemplate = jdbcTemplate;
+        this.latestRateRepository = latestRateRepository;
+        this.cache = cache;
+        this.channel = clusterProperties.getChannel();
+        this.pollTimeout = clusterProperties.getListenPollTimeout();
+        this.reconnectDelay = clusterProperties.getReconnectDelay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("cluster-listener").daemon().start(this::listen);
+        log.info("Cluster cache sync started as node {} on channel {}.", nodeId, channel);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        notifier.shutdown();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    public void announce(Set<String> changedBases) {
+        if (changedBases.isEmpty()) {
+            return;
+        }
+        String payload = new RateChangeMessage(nodeId, changedBases).encode();
+        try {
+            notifier.execute(() -> sendNotification(changedBases, payload));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropped the notification about {}: {}", changedBases, e.getMessage());
+        }
+    }
+
+    private void sendNotification(Set<String> changedBases, String payload) {
+        try {
+            jdbcTemplate.queryForList(NOTIFY_SQL, channel, payload);
+        } catch (DataAccessException e) {
+            log.warn("Failed to notify peers about {}: {}", changedBases, e.getMessage());
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = connections.open()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    reload(Set.of());
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        handle(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the cluster notification connection: {}. Reconnecting in {} ms.",
+                        e.getMessage(), reconnectDelay.toMillis());
+                if (!sleep(reconnectDelay)) {
+                    return;
+                }
+            }
+            reconnecting = true;
+        }
+    }
+
+    private void handle(PGNotification[] notifications) {
+        Set<String> bases = new HashSet<>();
+        for (PGNotification notification : notifications) {
+            RateChangeMessage message;
+            try {
+                message = RateChangeMessage.parse(notification.getParameter());
+            } catch (IllegalArgumentException e) {
+                log.warn(e.getMessage());
+                continue;
+            }
+            if (nodeId.equals(message.nodeId())) {
+                continue;
+            }
+            if (message.reloadAll()) {
+                reload(Set.of());
+                return;
+            }
+            bases.addAll(message.bases());
+        }
+        if (!bases.isEmpty()) {
+            reload(bases);
+        }
+    }
+
+    private void reload(Set<String> bases) {
+        try {
+            Map<String, Map<String, BigDecimal>> ratesByBase = bases.isEmpty()
+                    ? latestRateRepository.findAllRatesByBaseCode()
+                    : latestRateRepository.findRatesByBaseCodes(bases);
+            cache.publishFromPeer(ratesByBase);
+            log.debug("Reloaded {} bases changed by a peer.", ratesByBase.size());
+        } catch (DataAccessException e) {
+            log.warn("Failed to reload rates changed by a peer: {}", e.getMessage());
+        }
+    }
+
+    private static boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.currencyapp.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterProperties {
+    private boolean enabled = false;
+    private long leaderLockKey = 738291L;
+    private String channel = "exchange_rates_changed";
+    private Duration listenPollTimeout = Duration.ofSeconds(5);
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+    private Duration leaderCheckInterval = Duration.ofSeconds(5);
+}
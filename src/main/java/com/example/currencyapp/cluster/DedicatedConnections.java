@@ -0,0 +1,23 @@
+package com.example.currencyapp.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/** Opens session-scoped connections outside the Hikari pool. */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+class DedicatedConnections {
+    private final DataSourceProperties dataSourceProperties;
+
+    Connection open() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.currencyapp.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** Elects the node that runs scheduled work through a Postgres advisory lock. */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class LeaderElection {
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DedicatedConnections connections;
+    private final long lockKey;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Connection connection;
+    private volatile boolean leader;
+
+    public LeaderElection(DedicatedConnections connections, ClusterProperties clusterProperties) {
+        this.connections = connections;
+        this.lockKey = clusterProperties.getLeaderLockKey();
+    }
+
+    public boolean isLeader() {
+        lock.lock();
+        try {
+            if (leader && connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+            if (leader) {
+                log.warn("Lost the connection holding the leader lock.");
+            }
+            leader = tryAcquire();
+            if (leader) {
+                log.info("This node is now the refresh leader.");
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to acquire the leader lock: {}", e.getMessage());
+            leader = false;
+            closeConnection();
+        } finally {
+            lock.unlock();
+        }
+        return leader;
+    }
+
+    /** Leadership as of the last check, without a database round trip. */
+    public boolean isLeaderAsOfLastCheck() {
+        return leader;
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.leader-check-interval:5s}")
+    public void checkLeadership() {
+        isLeader();
+    }
+
+    @PreDestroy
+    void release() {
+        lock.lock();
+        try {
+            leader = false;
+            closeConnection();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryAcquire() throws SQLException {
+        if (connection == null || !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+            closeConnection();
+            connection = connections.open();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(TRY_LOCK_SQL)) {
+            statement.setLong(1, lockKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close the leader lock connection: {}", e.getMessage());
+        }
+        connection = null;
+    }
+}
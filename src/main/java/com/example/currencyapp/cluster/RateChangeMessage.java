@@ -0,0 +1,35 @@
+package com.example.currencyapp.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** Notification payload: the sender and the changed bases, empty meaning all. */
+record RateChangeMessage(String nodeId, Set<String> bases) {
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String SEPARATOR = "|";
+    private static final String ALL = "*";
+
+    boolean reloadAll() {
+        return bases.isEmpty();
+    }
+
+    String encode() {
+        String payload = nodeId + SEPARATOR + (reloadAll() ? ALL : String.join(",", bases));
+        return payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES
+                ? payload
+                : nodeId + SEPARATOR + ALL;
+    }
+
+    static RateChangeMessage parse(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed rate change notification: " + payload);
+        }
+        String bases = payload.substring(separator + 1);
+        return new RateChangeMessage(payload.substring(0, separator), ALL.equals(bases)
+                ? Set.of()
+                : Arrays.stream(bases.split(",")).filter(code -> !code.isBlank()).collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.currencyapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService backgroundRefreshExecutor(@Value("${cache.refresh-threads:2}") int threads) {
+        return Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("rate-refresh-", 0).daemon().factory());
+    }
+
+    @Bean(name = "backgroundRefreshExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualBackgroundRefreshExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-refresh-", 0).factory());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.currencyapp.config;
+
+import com.example.currencyapp.repository.CurrencyRepository;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
+
+/** Bootstraps JPA in the background so startup does not wait for Hibernate. */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = CurrencyRepository.class, bootstrapMode = BootstrapMode.DEFERRED)
+public class JpaBootstrapConfig {
+
+    @Bean
+    public EntityManagerFactoryBuilderCustomizer backgroundEntityManagerFactoryBootstrap() {
+        return builder -> builder.setBootstrapExecutor(new SimpleAsyncTaskExecutor("jpa-bootstrap-"));
+    }
+}
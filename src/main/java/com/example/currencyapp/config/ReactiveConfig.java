@@ -0,0 +1,44 @@
+package com.example.currencyapp.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    /** Without this, Boot would run WebFlux on Tomcat, which servlet mode keeps on the classpath. */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<ReactorResourceFactory> resourceFactory, ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        resourceFactory.ifAvailable(factory::setResourceFactory);
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler offloadScheduler(@Value("${reactive.offload-threads:16}") int threads,
+                                      @Value("${reactive.offload-queue:1000}") int queuedTasks) {
+        return Schedulers.newBoundedElastic(threads, queuedTasks, "offload");
+    }
+
+    @Bean
+    public CodecCustomizer cborCodecCustomizer() {
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborEncoder());
+            configurer.customCodecs().register(new Jackson2CborDecoder());
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.currencyapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Logs and counts JFR {@code jdk.VirtualThreadPinned} events. */
+@Component
+@Slf4j
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "diagnostics.virtual-thread-pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream recordingStream;
+    private final Counter pinnedCounter;
+
+    public VirtualThreadPinningMonitor(@Value("${diagnostics.virtual-thread-pinning.threshold:20ms}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.pinnedCounter = Counter.builder("exchange_rates.virtual_threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {} ms.", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void close() {
+        recordingStream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String stack = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+        log.warn("Virtual thread pinned for {} ms:\n\tat {}", event.getDuration().toMillis(), stack);
+    }
+}
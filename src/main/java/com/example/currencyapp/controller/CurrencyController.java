@@ -1,24 +1,51 @@
 package com.example.currencyapp.controller;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.ConversionBatchRequest;
+import com.example.currencyapp.dto.ConversionBatchResponse;
+import com.example.currencyapp.dto.ConversionDto;
 import com.example.currencyapp.dto.CurrencyDto;
 import com.example.currencyapp.dto.ExchangeRateDto;
+import com.example.currencyapp.service.ConversionService;
 import com.example.currencyapp.service.CurrencyService;
+import com.example.currencyapp.service.ExchangeRateHistoryService;
 import com.example.currencyapp.service.ExchangeRateService;
+import com.example.currencyapp.service.impl.RenderedRatesCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/currencies")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CurrencyController {
     private final CurrencyService currencyService;
     private final ExchangeRateService exchangeRateService;
+    private final ConversionService conversionService;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
+    private final RenderedRatesCache renderedRatesCache;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Get all available currencies", description = "Returns a list of all available currencies.")
     @ApiResponses(value = {
@@ -27,15 +54,24 @@ public class CurrencyController {
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping
-    public ResponseEntity<List<CurrencyDto>> getAllCurrencies() {
+    public ResponseEntity<List<CurrencyDto>> getAllCurrencies(WebRequest webRequest) {
+        boolean cbor = RatesResponseHeaders.acceptsCbor(webRequest.getHeader(HttpHeaders.ACCEPT));
         List<CurrencyDto> currencies = currencyService.getAllCurrencies();
-        return ResponseEntity.ok(currencies);
+        String etag = RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.variant(cbor, false));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .body(currencies);
     }
 
     @Operation(summary = "Add a new currency", description = "Adds a new currency to the system.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of currencies"),
-            @ApiResponse(responseCode = "404", description = "No currencies found"),
+            @ApiResponse(responseCode = "201", description = "Currency added"),
+            @ApiResponse(responseCode = "400", description = "Currency already exists"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @PostMapping
@@ -45,15 +81,124 @@ public class CurrencyController {
         return "Currency " + currencyCode.toUpperCase() + " successfully added.";
     }
 
-    @Operation(summary = "Get exchange rates for a currency", description = "Fetches exchange rates for the specified currency.")
+    @Operation(summary = "Get exchange rates for a currency", description = "Fetches exchange rates for the specified currency, optionally as of the given instant.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved exchange rates"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved exchange rates",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ExchangeRateDto.class)))),
             @ApiResponse(responseCode = "404", description = "Currency not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/{currencyCode}/rates")
-    public ResponseEntity<List<ExchangeRateDto>> getExchangeRateByCode(@PathVariable String currencyCode) {
-        List<ExchangeRateDto> rates = exchangeRateService.getExchangeRates(currencyCode);
-        return ResponseEntity.ok(rates);
+    public ResponseEntity<?> getExchangeRateByCode(@PathVariable String currencyCode,
+                                                   @RequestParam(required = false) Instant at,
+                                                   WebRequest webRequest) {
+        if (at != null) {
+            return ResponseEntity.ok(exchangeRateHistoryService.getExchangeRatesAt(currencyCode, at));
+        }
+
+        RatesSnapshot snapshot = exchangeRateService.getRatesSnapshot(currencyCode);
+        Instant lastModified = snapshot.modifiedAt(currencyCode.toUpperCase());
+        boolean cbor = RatesResponseHeaders.acceptsCbor(webRequest.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = !cbor && RatesResponseHeaders.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = RatesResponseHeaders.baseEtag(snapshot, currencyCode, RatesResponseHeaders.variant(cbor, gzip));
+        if (webRequest.checkNotModified(etag, lastModified.toEpochMilli())) {
+            return null;
+        }
+
+        RenderedRatesCache.RenderedRates rendered = renderedRatesCache.get(snapshot, currencyCode);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (cbor) {
+            return response.contentType(MediaType.APPLICATION_CBOR).body(rendered.cbor());
+        }
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+        }
+        return response.body(rendered.json());
+    }
+
+    @Operation(summary = "Get exchange rates for many bases",
+            description = "Returns {base: {quote: rate}} for the requested bases (all when omitted), limited to the requested quotes. Served from memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved exchange rates"),
+            @ApiResponse(responseCode = "404", description = "A requested base is not available"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping("/rates")
+    public ResponseEntity<?> getBulkRates(@RequestParam(required = false) List<String> bases,
+                                          @RequestParam(required = false) List<String> quotes,
+                                          WebRequest webRequest) {
+        RatesSnapshot snapshot = exchangeRateService.getCachedRatesSnapshot(bases);
+        boolean cbor = RatesResponseHeaders.acceptsCbor(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String etag = RatesResponseHeaders.bulkEtag(snapshot, bases, quotes, RatesResponseHeaders.variant(cbor, false));
+        if (webRequest.checkNotModified(etag,
+                RatesResponseHeaders.lastModified(snapshot, bases).toEpochMilli())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (cbor) {
+            return response.contentType(MediaType.APPLICATION_CBOR)
+                    .body(exchangeRateService.getCompactRates(snapshot, bases, quotes));
+        }
+        return response.body(exchangeRateService.getRates(snapshot, bases, quotes));
+    }
+
+    @Operation(summary = "Stream exchange rate history", description = "Streams every stored rate of the currency within [from, to).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed exchange rate history"),
+            @ApiResponse(responseCode = "400", description = "Invalid time range"),
+            @ApiResponse(responseCode = "404", description = "Currency not found"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/{currencyCode}/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getExchangeRateHistory(@PathVariable String currencyCode,
+                                                                        @RequestParam Instant from,
+                                                                        @RequestParam Instant to) {
+        exchangeRateHistoryService.validateHistoryRequest(currencyCode, from, to);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                exchangeRateHistoryService.streamHistory(currencyCode, from, to, rate -> {
+                    try {
+                        objectMapper.writeValue(generator, rate);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok(body);
+    }
+
+    @Operation(summary = "Convert an amount", description = "Converts an amount between two currencies using in-memory rates.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully converted amount"),
+            @ApiResponse(responseCode = "400", description = "Invalid conversion request"),
+            @ApiResponse(responseCode = "404", description = "Rate not available"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping("/convert")
+    public ResponseEntity<ConversionDto> convert(@RequestParam String from,
+                                                 @RequestParam String to,
+                                                 @RequestParam BigDecimal amount) {
+        return ResponseEntity.ok(conversionService.convert(from, to, amount));
+    }
+
+    @Operation(summary = "Convert a batch of amounts", description = "Converts many amounts between two currencies in one call.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully converted amounts"),
+            @ApiResponse(responseCode = "400", description = "Invalid conversion request"),
+            @ApiResponse(responseCode = "404", description = "Rate not available"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PostMapping("/convert")
+    public ResponseEntity<ConversionBatchResponse> convertAll(@RequestBody ConversionBatchRequest request) {
+        return ResponseEntity.ok(conversionService.convertAll(request));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.example.currencyapp.controller;
+
+import com.example.currencyapp.stream.RateDelta;
+import com.example.currencyapp.stream.RateDeltaSink;
+import com.example.currencyapp.stream.RateSubscription;
+import com.example.currencyapp.stream.RateUpdateHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/currencies")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateStreamController {
+    private final RateUpdateHub rateUpdateHub;
+    private final Duration maxConnectionDuration;
+
+    public RateStreamController(RateUpdateHub rateUpdateHub,
+                                @Value("${stream.max-connection-duration:30m}") Duration maxConnectionDuration) {
+        this.rateUpdateHub = rateUpdateHub;
+        this.maxConnectionDuration = maxConnectionDuration;
+    }
+
+    @Operation(summary = "Stream exchange rate updates",
+            description = "Server-Sent Events: the current rates of the requested bases (all when omitted), then only the quotes that change.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "503", description = "Subscriber limit reached")
+    })
+    @GetMapping(value = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRates(@RequestParam(required = false) List<String> bases) {
+        SseEmitter emitter = new SseEmitter(maxConnectionDuration.toMillis());
+        RateSubscription subscription = rateUpdateHub.subscribe(bases, new EmitterSink(emitter));
+        emitter.onCompletion(subscription::close);
+        emitter.onError(e -> subscription.close());
+        emitter.onTimeout(() -> {
+            subscription.close();
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    /** Blocks only this subscriber's virtual thread; its pending updates coalesce meanwhile. */
+    private record EmitterSink(SseEmitter emitter) implements RateDeltaSink {
+
+        @Override
+        public boolean ready() {
+            return true;
+        }
+
+        @Override
+        public void send(RateDelta delta) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(delta.version()))
+                    .name("rates")
+                    .data(delta, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.currencyapp.controller;
+
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.CurrencyDto;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/** Validators and content negotiation for the rates endpoints. */
+final class RatesResponseHeaders {
+    static final String JSON = "";
+    static final String GZIP = "-gzip";
+    static final String CBOR = "-cbor";
+
+    private static final Comparator<MediaType> PREFERENCE = Comparator
+            .comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype);
+
+    private RatesResponseHeaders() {
+    }
+
+    static String variant(boolean cbor, boolean gzip) {
+        return cbor ? CBOR : gzip ? GZIP : JSON;
+    }
+
+    static String baseEtag(RatesSnapshot snapshot, String baseCurrency, String variant) {
+        String base = baseCurrency.toUpperCase(Locale.ROOT);
+        return "\"" + base + "-" + snapshot.rowVersion(base) + "-" + Long.toHexString(snapshot.rowHash(base))
+                + variant + "\"";
+    }
+
+    static String bulkEtag(RatesSnapshot snapshot, Collection<String> bases, Collection<String> quotes,
+                           String variant) {
+        long hash = 1;
+        for (String base : normalized(bases == null || bases.isEmpty() ? snapshot.matrix().baseCodes() : bases)) {
+            hash = hash * 1_000_003 + base.hashCode();
+            hash = hash * 1_000_003 + snapshot.rowVersion(base);
+            hash = hash * 1_000_003 + snapshot.rowHash(base);
+        }
+        if (quotes != null) {
+            for (String quote : normalized(quotes)) {
+                hash = hash * 1_000_003 + quote.hashCode();
+            }
+        }
+        return "\"rates-" + Long.toHexString(hash) + variant + "\"";
+    }
+
+    static String currenciesEtag(List<CurrencyDto> currencies, String variant) {
+        return "\"currencies-" + Integer.toHexString(currencies.hashCode()) + variant + "\"";
+    }
+
+    /** True when gzip, or {@code *} with gzip unlisted, has a non-zero q-value. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    /** Newest content change among the selected rows. */
+    static Instant lastModified(RatesSnapshot snapshot, Collection<String> bases) {
+        return normalized(bases == null || bases.isEmpty() ? snapshot.matrix().baseCodes() : bases).stream()
+                .map(snapshot::modifiedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(snapshot.refreshedAt());
+    }
+
+    /** True when {@code application/cbor} is the most preferred acceptable type. */
+    static boolean acceptsCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        mediaTypes.sort(PREFERENCE);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                return false;
+            }
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    double quality = Double.parseDouble(parameter.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static List<String> normalized(Collection<String> codes) {
+        return codes.stream()
+                .map(code -> code.toUpperCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
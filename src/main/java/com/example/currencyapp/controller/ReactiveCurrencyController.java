@@ -0,0 +1,165 @@
+package com.example.currencyapp.controller;
+
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.ConversionBatchRequest;
+import com.example.currencyapp.dto.ConversionBatchResponse;
+import com.example.currencyapp.dto.ConversionDto;
+import com.example.currencyapp.dto.CurrencyDto;
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
+import com.example.currencyapp.provider.FrankfurterWebClientRateProvider;
+import com.example.currencyapp.service.ConversionService;
+import com.example.currencyapp.service.CurrencyService;
+import com.example.currencyapp.service.ExchangeRateHistoryService;
+import com.example.currencyapp.service.ExchangeRateService;
+import com.example.currencyapp.service.impl.RenderedRatesCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/** WebFlux variant of {@link CurrencyController}; blocking work runs on the offload scheduler. */
+@RestController
+@RequestMapping("/api/v1/currencies")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCurrencyController {
+    private final CurrencyService currencyService;
+    private final ExchangeRateService exchangeRateService;
+    private final ConversionService conversionService;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
+    private final RenderedRatesCache renderedRatesCache;
+    private final FrankfurterWebClientRateProvider webClientRateProvider;
+    private final Scheduler offloadScheduler;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<CurrencyDto>>> getAllCurrencies(ServerWebExchange exchange) {
+        boolean cbor = RatesResponseHeaders.acceptsCbor(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT));
+        return offload(currencyService::getAllCurrencies)
+                .mapNotNull(currencies -> {
+                    String etag = RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.variant(cbor, false));
+                    if (exchange.checkNotModified(etag)) {
+                        return null;
+                    }
+                    return ResponseEntity.ok()
+                            .cacheControl(CacheControl.noCache())
+                            .varyBy(HttpHeaders.ACCEPT)
+                            .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                            .body(currencies);
+                });
+    }
+
+    /** Fetches the rates with WebClient and offloads only the insert. */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<String> addCurrency(@RequestParam String currencyCode) {
+        String upperCurrencyCode = currencyCode.toUpperCase();
+        return webClientRateProvider.fetchRatesAsync(upperCurrencyCode)
+                .flatMap(response -> offload(() -> {
+                    currencyService.addCurrency(upperCurrencyCode, response.getRates());
+                    return "Currency " + upperCurrencyCode + " successfully added.";
+                }));
+    }
+
+    @GetMapping("/{currencyCode}/rates")
+    public Mono<ResponseEntity<?>> getExchangeRateByCode(@PathVariable String currencyCode,
+                                                         @RequestParam(required = false) Instant at,
+                                                         ServerWebExchange exchange) {
+        if (at != null) {
+            return offload(() -> ResponseEntity.ok(exchangeRateHistoryService.getExchangeRatesAt(currencyCode, at)));
+        }
+
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        boolean cbor = RatesResponseHeaders.acceptsCbor(headers.getFirst(HttpHeaders.ACCEPT));
+        boolean gzip = !cbor && RatesResponseHeaders.acceptsGzip(headers.getFirst(HttpHeaders.ACCEPT_ENCODING));
+        return exchangeRateService.findCachedSnapshot(currencyCode)
+                .map(Mono::just)
+                .orElseGet(() -> offload(() -> exchangeRateService.getRatesSnapshot(currencyCode)))
+                .mapNotNull(snapshot -> renderRates(snapshot, currencyCode, cbor, gzip, exchange));
+    }
+
+    @GetMapping("/rates")
+    public Mono<ResponseEntity<?>> getBulkRates(@RequestParam(required = false) List<String> bases,
+                                                @RequestParam(required = false) List<String> quotes,
+                                                ServerWebExchange exchange) {
+        boolean cbor = RatesResponseHeaders.acceptsCbor(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT));
+        return Mono.fromSupplier(() -> {
+            RatesSnapshot snapshot = exchangeRateService.getCachedRatesSnapshot(bases);
+            String etag = RatesResponseHeaders.bulkEtag(snapshot, bases, quotes, RatesResponseHeaders.variant(cbor, false));
+            if (exchange.checkNotModified(etag, RatesResponseHeaders.lastModified(snapshot, bases))) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT);
+            if (cbor) {
+                return response.contentType(MediaType.APPLICATION_CBOR)
+                        .body(exchangeRateService.getCompactRates(snapshot, bases, quotes));
+            }
+            return response.body(exchangeRateService.getRates(snapshot, bases, quotes));
+        });
+    }
+
+    @GetMapping(value = "/{currencyCode}/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<ExchangeRateHistoryDto> getExchangeRateHistory(@PathVariable String currencyCode,
+                                                               @RequestParam Instant from,
+                                                               @RequestParam Instant to) {
+        return offload(() -> {
+            exchangeRateHistoryService.validateHistoryRequest(currencyCode, from, to);
+            return exchangeRateHistoryService.getHistoryPage(currencyCode, from, to, null);
+        }).expand(page -> page.isEmpty()
+                ? Mono.empty()
+                : offload(() -> exchangeRateHistoryService.getHistoryPage(currencyCode, from, to, page.get(page.size() - 1))))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    @GetMapping("/convert")
+    public Mono<ResponseEntity<ConversionDto>> convert(@RequestParam String from,
+                                                       @RequestParam String to,
+                                                       @RequestParam BigDecimal amount) {
+        return offload(() -> ResponseEntity.ok(conversionService.convert(from, to, amount)));
+    }
+
+    @PostMapping("/convert")
+    public Mono<ResponseEntity<ConversionBatchResponse>> convertAll(@RequestBody ConversionBatchRequest request) {
+        return offload(() -> ResponseEntity.ok(conversionService.convertAll(request)));
+    }
+
+    private ResponseEntity<?> renderRates(RatesSnapshot snapshot, String currencyCode, boolean cbor, boolean gzip,
+                                          ServerWebExchange exchange) {
+        Instant lastModified = snapshot.modifiedAt(currencyCode.toUpperCase());
+        String etag = RatesResponseHeaders.baseEtag(snapshot, currencyCode, RatesResponseHeaders.variant(cbor, gzip));
+        if (exchange.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        RenderedRatesCache.RenderedRates rendered = renderedRatesCache.get(snapshot, currencyCode);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (cbor) {
+            return response.contentType(MediaType.APPLICATION_CBOR).body(rendered.cbor());
+        }
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+        }
+        return response.body(rendered.json());
+    }
+
+    private <T> Mono<T> offload(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(offloadScheduler);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.currencyapp.controller;
+
+import com.example.currencyapp.stream.RateDelta;
+import com.example.currencyapp.stream.RateDeltaSink;
+import com.example.currencyapp.stream.RateSubscription;
+import com.example.currencyapp.stream.RateUpdateHub;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.Duration;
+import java.util.List;
+
+/** WebFlux variant of {@link RateStreamController}, delivering on downstream demand. */
+@RestController
+@RequestMapping("/api/v1/currencies")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRateStreamController {
+    private final RateUpdateHub rateUpdateHub;
+    private final Duration maxConnectionDuration;
+
+    public ReactiveRateStreamController(RateUpdateHub rateUpdateHub,
+                                        @Value("${stream.max-connection-duration:30m}") Duration maxConnectionDuration) {
+        this.rateUpdateHub = rateUpdateHub;
+        this.maxConnectionDuration = maxConnectionDuration;
+    }
+
+    @GetMapping(value = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<RateDelta>> streamRates(@RequestParam(required = false) List<String> bases) {
+        return Flux.<ServerSentEvent<RateDelta>>create(emitter -> {
+            RateSubscription subscription = rateUpdateHub.subscribe(bases, new FluxSinkAdapter(emitter));
+            emitter.onRequest(demand -> subscription.drain());
+            emitter.onDispose(subscription::close);
+        }).take(maxConnectionDuration);
+    }
+
+    private record FluxSinkAdapter(FluxSink<ServerSentEvent<RateDelta>> emitter) implements RateDeltaSink {
+
+        @Override
+        public boolean ready() {
+            return emitter.requestedFromDownstream() > 0 && !emitter.isCancelled();
+        }
+
+        @Override
+        public void send(RateDelta delta) {
+            emitter.next(ServerSentEvent.builder(delta)
+                    .id(String.valueOf(delta.version()))
+                    .event("rates")
+                    .build());
+        }
+
+        @Override
+        public void heartbeat() {
+            emitter.next(ServerSentEvent.<RateDelta>builder().comment("heartbeat").build());
+        }
+    }
+}
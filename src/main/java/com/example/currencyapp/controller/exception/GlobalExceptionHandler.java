@@ -3,10 +3,16 @@ package com.example.currencyapp.controller.exception;
 import com.example.currencyapp.exception.CurrencyAlreadyExistsException;
 import com.example.currencyapp.exception.CurrencyNotFoundException;
 import com.example.currencyapp.exception.ExternalServiceException;
+import com.example.currencyapp.exception.InvalidRequestException;
+import com.example.currencyapp.exception.SubscriberLimitExceededException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -20,11 +26,41 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<String> handleInvalidRequestException(InvalidRequestException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<String> handleMissingParameterException(MissingServletRequestParameterException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Parameter " + e.getParameterName() + " is required.");
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<String> handleArgumentTypeMismatchException(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Parameter " + e.getName() + " is invalid.");
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleMessageNotReadableException(HttpMessageNotReadableException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Request body is malformed.");
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<String> handleServerWebInputException(ServerWebInputException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getReason());
+    }
+
     @ExceptionHandler(ExternalServiceException.class)
     public ResponseEntity<String> handleExternalServiceException(ExternalServiceException e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
     }
 
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<String> handleSubscriberLimitExceededException(SubscriberLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
@@ -0,0 +1,10 @@
+package com.example.currencyapp.dto;
+
+import java.util.List;
+
+/**
+ * Columnar rate table for CBOR: {@code rates} holds {@code bases x quotes} fixed-point values, with
+ * {@code bases} and {@code quotes} indexing into {@code codes}.
+ */
+public record CompactRateTable(long version, int scale, List<String> codes, int[] bases, int[] quotes, long[] rates) {
+}
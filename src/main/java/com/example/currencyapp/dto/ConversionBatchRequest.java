@@ -0,0 +1,17 @@
+package com.example.currencyapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionBatchRequest {
+    private String from;
+    private String to;
+    private List<BigDecimal> amounts;
+}
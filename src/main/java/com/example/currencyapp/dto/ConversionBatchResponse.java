@@ -0,0 +1,18 @@
+package com.example.currencyapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionBatchResponse {
+    private String from;
+    private String to;
+    private BigDecimal rate;
+    private List<BigDecimal> results;
+}
@@ -0,0 +1,18 @@
+package com.example.currencyapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionDto {
+    private String from;
+    private String to;
+    private BigDecimal amount;
+    private BigDecimal rate;
+    private BigDecimal result;
+}
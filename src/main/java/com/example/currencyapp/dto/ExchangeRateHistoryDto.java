@@ -0,0 +1,18 @@
+package com.example.currencyapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRateHistoryDto {
+    private String baseCurrencyCode;
+    private String currencyCode;
+    private BigDecimal rate;
+    private LocalDateTime timestamp;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Map;
 
 @Data
@@ -12,5 +13,10 @@ import java.util.Map;
 @AllArgsConstructor
 public class ExchangeRateResponse {
     private String base;
+    private LocalDate date;
     private Map<String, BigDecimal> rates;
+
+    public ExchangeRateResponse(String base, Map<String, BigDecimal> rates) {
+        this(base, null, rates);
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.currencyapp.dto;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+public record RefreshReport(Duration duration, int succeeded, Map<String, String> failures, Set<String> changedBases) {
+
+    public static RefreshReport empty() {
+        return new RefreshReport(Duration.ZERO, 0, Map.of(), Set.of());
+    }
+
+    public int failed() {
+        return failures.size();
+    }
+
+    public RefreshReport withChangedBases(Set<String> changedBases) {
+        return new RefreshReport(duration, succeeded, failures, Set.copyOf(changedBases));
+    }
+}
@@ -6,9 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Entity
 @Table(name = "currencies")
 @Data
@@ -23,7 +20,4 @@ public class Currency {
 
     @Column(unique = true, nullable = false)
     private String code;
-
-    @OneToMany(mappedBy = "currency", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<ExchangeRate> exchangeRates = new ArrayList<>();
 }
\ No newline at end of file
@@ -1,36 +0,0 @@
-package com.example.currencyapp.entity;
-
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-
-@Entity
-@Table(name = "exchange_rates")
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class ExchangeRate {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "currency_id", nullable = false)
-    private Currency currency;
-
-    @Column(nullable = false)
-    private String code;
-
-    @Column(nullable = false, precision = 10, scale = 4)
-    private BigDecimal rate;
-
-    @Column(nullable = false)
-    private LocalDateTime timestamp;
-}
@@ -0,0 +1,7 @@
+package com.example.currencyapp.exception;
+
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
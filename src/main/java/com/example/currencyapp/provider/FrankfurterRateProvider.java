@@ -0,0 +1,22 @@
+package com.example.currencyapp.provider;
+
+import com.example.currencyapp.client.ExchangeRatesClient;
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class FrankfurterRateProvider implements RateProvider {
+    private final ExchangeRatesClient exchangeRatesClient;
+
+    @Override
+    public String name() {
+        return "frankfurter";
+    }
+
+    @Override
+    public ExchangeRateResponse fetchRates(String baseCurrency) {
+        return exchangeRatesClient.getExchangeRates(baseCurrency);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.currencyapp.provider;
+
+import com.example.currencyapp.client.ExchangeRatesResilience;
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.ExternalServiceException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+/** Frankfurter client on WebClient; only {@link #fetchRatesAsync} is non-blocking. */
+@Component
+@Slf4j
+public class FrankfurterWebClientRateProvider implements RateProvider {
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public FrankfurterWebClientRateProvider(WebClient.Builder webClientBuilder,
+                                            @Value("${frankfurter.url}") String baseUrl,
+                                            @Value("${frankfurter.webclient.connect-timeout:2s}") Duration connectTimeout,
+                                            @Value("${frankfurter.webclient.timeout:3s}") Duration timeout,
+                                            ExchangeRatesResilience resilience) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(timeout);
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.timeout = timeout;
+        this.retry = resilience.getRetry();
+        this.circuitBreaker = resilience.getCircuitBreaker();
+        this.bulkhead = resilience.getBulkhead();
+    }
+
+    @Override
+    public String name() {
+        return "frankfurter-webclient";
+    }
+
+    @Override
+    public ExchangeRateResponse fetchRates(String baseCurrency) {
+        return fetchRatesAsync(baseCurrency).block();
+    }
+
+    public Mono<ExchangeRateResponse> fetchRatesAsync(String baseCurrency) {
+        return webClient.get()
+                .uri(uri -> uri.path("/latest").queryParam("base", baseCurrency).build())
+                .retrieve()
+                .bodyToMono(ExchangeRateResponse.class)
+                .timeout(timeout.multipliedBy(2))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorMap(e -> translate(e, baseCurrency));
+    }
+
+    private static RuntimeException translate(Throwable e, String baseCurrency) {
+        if (e instanceof CallNotPermittedException) {
+            return new ExternalServiceException("External service is unavailable.");
+        }
+        if (e instanceof BulkheadFullException) {
+            return new ExternalServiceException("Too many concurrent calls to the external service.");
+        }
+        if (e instanceof WebClientResponseException && !ExchangeRatesResilience.isTransient(e)) {
+            return new CurrencyNotFoundException("Currency not found in external service: " + baseCurrency);
+        }
+        log.warn("Exchange rates request for {} failed: {}", baseCurrency, e.getMessage());
+        return new ExternalServiceException("External service error.");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.currencyapp.provider;
+
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.ExternalServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/** Fetches from the providers in order, hedging to the next one when a call is slow or fails. */
+@Component
+@Slf4j
+public class HedgedRateSource {
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    private final List<RateProvider> providers;
+    private final Map<String, LatencyWindow> latencies = new LinkedHashMap<>();
+    private final Duration hedgeDelay;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+    private final Counter hedges;
+
+    public HedgedRateSource(List<RateProvider> availableProviders,
+                            @Value("${rate-source.providers:frankfurter}") List<String> providerNames,
+                            @Value("${rate-source.hedge-delay:500ms}") Duration hedgeDelay,
+                            @Value("${rate-source.latency-window:200}") int latencyWindow,
+                            MeterRegistry meterRegistry) {
+        this.providers = new ArrayList<>();
+        for (String name : providerNames) {
+            RateProvider provider = availableProviders.stream()
+                    .filter(candidate -> candidate.name().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Unknown rate provider: " + name));
+            providers.add(provider);
+            latencies.put(name, new LatencyWindow(latencyWindow, Math.min(20, latencyWindow)));
+        }
+        if (providers.isEmpty()) {
+            throw new IllegalStateException("At least one rate provider must be configured.");
+        }
+        this.hedgeDelay = hedgeDelay;
+        this.meterRegistry = meterRegistry;
+        this.hedges = Counter.builder("exchange_rates.upstream.hedges")
+                .description("Requests sent to a fallback provider because the previous one was slow")
+                .register(meterRegistry);
+    }
+
+    public ExchangeRateResponse fetchRates(String baseCurrency) {
+        ExecutorCompletionService<Attempt> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Attempt>> inFlight = new ArrayList<>();
+        RuntimeException[] failures = new RuntimeException[providers.size()];
+        int launched = 0;
+        int finished = 0;
+        inFlight.add(completion.submit(() -> attempt(0, baseCurrency)));
+        launched++;
+
+        try {
+            while (finished < launched) {
+                Future<Attempt> done = launched < providers.size()
+                        ? completion.poll(budget(providers.get(launched - 1)).toNanos(), TimeUnit.NANOSECONDS)
+                        : completion.take();
+                if (done == null) {
+                    log.debug("{} has not answered for {} in time. Hedging with {}...",
+                            providers.get(launched - 1).name(), baseCurrency, providers.get(launched).name());
+                    hedges.increment();
+                    int index = launched++;
+                    inFlight.add(completion.submit(() -> attempt(index, baseCurrency)));
+                    continue;
+                }
+
+                finished++;
+                Attempt attempt = done.get();
+                if (attempt.failure() == null) {
+                    return attempt.response();
+                }
+                failures[attempt.index()] = attempt.failure();
+                if (launched < providers.size()) {
+                    int index = launched++;
+                    inFlight.add(completion.submit(() -> attempt(index, baseCurrency)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException("Interrupted while fetching rates for " + baseCurrency + ".");
+        } catch (ExecutionException e) {
+            throw new ExternalServiceException("External service error.");
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        throw new ExternalServiceException("External service error.");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Attempt attempt(int index, String baseCurrency) {
+        RateProvider provider = providers.get(index);
+        long start = System.nanoTime();
+        try {
+            ExchangeRateResponse response = provider.fetchRates(baseCurrency);
+            if (response == null || response.getRates() == null) {
+                throw new ExternalServiceException("Empty response from rate provider " + provider.name() + ".");
+            }
+            long elapsed = System.nanoTime() - start;
+            latencies.get(provider.name()).record(elapsed);
+            upstreamTimer(provider, "success").record(elapsed, TimeUnit.NANOSECONDS);
+            return new Attempt(index, response, null);
+        } catch (RuntimeException e) {
+            upstreamTimer(provider, "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Rate provider {} failed for {}: {}", provider.name(), baseCurrency, e.getMessage());
+            return new Attempt(index, null, e);
+        }
+    }
+
+    private Timer upstreamTimer(RateProvider provider, String outcome) {
+        return Timer.builder("exchange_rates.upstream.calls")
+                .description("Calls to upstream rate providers")
+                .tags("provider", provider.name(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Duration budget(RateProvider provider) {
+        return latencies.get(provider.name()).percentile(HEDGE_PERCENTILE, hedgeDelay);
+    }
+
+    private record Attempt(int index, ExchangeRateResponse response, RuntimeException failure) {
+    }
+}
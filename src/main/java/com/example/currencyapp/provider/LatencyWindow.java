@@ -0,0 +1,46 @@
+package com.example.currencyapp.provider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** Ring buffer of a provider's recent successful call latencies. */
+class LatencyWindow {
+    private final long[] samplesNanos;
+    private final int minSamples;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int next;
+    private int count;
+
+    LatencyWindow(int capacity, int minSamples) {
+        this.samplesNanos = new long[capacity];
+        this.minSamples = minSamples;
+    }
+
+    void record(long nanos) {
+        lock.lock();
+        try {
+            samplesNanos[next] = nanos;
+            next = (next + 1) % samplesNanos.length;
+            count = Math.min(count + 1, samplesNanos.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Duration percentile(double percentile, Duration fallback) {
+        long[] sorted;
+        lock.lock();
+        try {
+            if (count < minSamples) {
+                return fallback;
+            }
+            sorted = Arrays.copyOf(samplesNanos, count);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(index, 0)]);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.currencyapp.provider;
+
+import com.example.currencyapp.dto.ExchangeRateResponse;
+
+/** An upstream source of latest rates, ordered by {@code rate-source.providers}. */
+public interface RateProvider {
+    String name();
+
+    ExchangeRateResponse fetchRates(String baseCurrency);
+}
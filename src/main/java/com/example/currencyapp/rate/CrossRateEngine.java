@@ -0,0 +1,62 @@
+package com.example.currencyapp.rate;
+
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class CrossRateEngine {
+    private final String pivotCurrency;
+    private final MathContext mathContext;
+    private final int scale;
+    private final RoundingMode roundingMode;
+
+    public CrossRateEngine(@Value("${cross-rate.pivot:EUR}") String pivotCurrency,
+                           @Value("${cross-rate.precision:10}") int precision,
+                           @Value("${cross-rate.scale:9}") int scale,
+                           @Value("${cross-rate.rounding-mode:HALF_EVEN}") RoundingMode roundingMode) {
+        this.pivotCurrency = pivotCurrency.toUpperCase();
+        this.mathContext = new MathContext(precision, roundingMode);
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+    }
+
+    public String getPivotCurrency() {
+        return pivotCurrency;
+    }
+
+    public boolean canDerive(String baseCurrency, Map<String, BigDecimal> pivotRates) {
+        return pivotCurrency.equals(baseCurrency) || pivotRates.containsKey(baseCurrency);
+    }
+
+    /** Derives {@code base -> quote} as {@code (pivot -> quote) / (pivot -> base)}. */
+    public Map<String, BigDecimal> derive(String baseCurrency, Map<String, BigDecimal> pivotRates) {
+        if (pivotCurrency.equals(baseCurrency)) {
+            return Map.copyOf(pivotRates);
+        }
+
+        BigDecimal pivotToBase = pivotRates.get(baseCurrency);
+        if (pivotToBase == null || pivotToBase.signum() <= 0) {
+            throw new CurrencyNotFoundException("Currency " + baseCurrency + " is not quoted against " + pivotCurrency + ".");
+        }
+
+        Map<String, BigDecimal> derived = new HashMap<>(pivotRates.size());
+        derived.put(pivotCurrency, divide(BigDecimal.ONE, pivotToBase));
+        pivotRates.forEach((quote, pivotToQuote) -> {
+            if (!quote.equals(baseCurrency)) {
+                derived.put(quote, divide(pivotToQuote, pivotToBase));
+            }
+        });
+        return derived;
+    }
+
+    private BigDecimal divide(BigDecimal dividend, BigDecimal divisor) {
+        return dividend.divide(divisor, mathContext).setScale(scale, roundingMode);
+    }
+}
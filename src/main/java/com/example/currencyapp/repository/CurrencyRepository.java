@@ -2,12 +2,17 @@ package com.example.currencyapp.repository;
 
 import com.example.currencyapp.entity.Currency;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CurrencyRepository extends JpaRepository<Currency, Long> {
     Boolean existsByCode(String code);
     Optional<Currency> findByCode(String code);
+
+    @Query("SELECT c.code FROM Currency c ORDER BY c.id")
+    List<String> findAllCodes();
 }
@@ -0,0 +1,82 @@
+package com.example.currencyapp.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+public class ExchangeRateBatchWriter {
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO exchange_rates (currency_id, code, rate, timestamp) VALUES (?, ?, ?, ?)";
+    private static final String UPSERT_LATEST_SQL = """
+            INSERT INTO latest_rates (currency_id, code, rate, updated_at) VALUES (?, ?, ?, ?)
+            ON CONFLICT (currency_id, code) DO UPDATE SET rate = EXCLUDED.rate, updated_at = EXCLUDED.updated_at
+            """;
+    private static final String INSERT_REMOVED_SQL = """
+            INSERT INTO exchange_rates (currency_id, code, rate, timestamp, kind)
+            SELECT currency_id, code, rate, ?, 'REMOVED' FROM latest_rates WHERE currency_id = ? AND code = ANY (?)
+            """;
+    private static final String DELETE_LATEST_SQL = "DELETE FROM latest_rates WHERE currency_id = ? AND code = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer upsertLatestTimer;
+    private final Timer insertHistoryTimer;
+    private final Timer deleteLatestTimer;
+
+    public ExchangeRateBatchWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertLatestTimer = QueryTimers.of(meterRegistry, "upsert_latest");
+        this.insertHistoryTimer = QueryTimers.of(meterRegistry, "insert_history");
+        this.deleteLatestTimer = QueryTimers.of(meterRegistry, "delete_latest");
+    }
+
+    @Transactional
+    public void saveRates(Long currencyId, Map<String, BigDecimal> rates, LocalDateTime timestamp) {
+        upsertLatest(currencyId, rates, timestamp);
+        insertAll(currencyId, rates, timestamp);
+    }
+
+    /** Writes changed quotes and removes dropped ones in one transaction, recording removals. */
+    @Transactional
+    public void saveRates(Long currencyId, Map<String, BigDecimal> changed, Set<String> removed, LocalDateTime timestamp) {
+        if (!changed.isEmpty()) {
+            upsertLatest(currencyId, changed, timestamp);
+            insertAll(currencyId, changed, timestamp);
+        }
+        if (!removed.isEmpty()) {
+            String[] codes = removed.toArray(String[]::new);
+            deleteLatestTimer.record(() -> {
+                jdbcTemplate.update(INSERT_REMOVED_SQL, Timestamp.valueOf(timestamp), currencyId, codes);
+                jdbcTemplate.update(DELETE_LATEST_SQL, currencyId, codes);
+            });
+        }
+    }
+
+    public void upsertLatest(Long currencyId, Map<String, BigDecimal> rates, LocalDateTime timestamp) {
+        upsertLatestTimer.record(() -> batchUpdate(UPSERT_LATEST_SQL, currencyId, rates, timestamp));
+    }
+
+    public void insertAll(Long currencyId, Map<String, BigDecimal> rates, LocalDateTime timestamp) {
+        insertHistoryTimer.record(() -> batchUpdate(INSERT_HISTORY_SQL, currencyId, rates, timestamp));
+    }
+
+    private void batchUpdate(String sql, Long currencyId, Map<String, BigDecimal> rates, LocalDateTime timestamp) {
+        List<Map.Entry<String, BigDecimal>> entries = List.copyOf(rates.entrySet());
+        Timestamp sqlTimestamp = Timestamp.valueOf(timestamp);
+        jdbcTemplate.batchUpdate(sql, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, currencyId);
+            statement.setString(2, entry.getKey());
+            statement.setBigDecimal(3, entry.getValue());
+            statement.setTimestamp(4, sqlTimestamp);
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.currencyapp.repository;
+
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+public class ExchangeRateHistoryRepository {
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String PARTITION_PREFIX = "exchange_rates_";
+
+    /** Newest history row of every quote up to the instant, skipping removed quotes. */
+    private static final String SELECT_AS_OF_SQL = """
+            SELECT code, rate, timestamp FROM (
+                SELECT DISTINCT ON (code) code, rate, timestamp, kind
+                FROM exchange_rates
+                WHERE currency_id = ? AND timestamp <= ?
+                ORDER BY code, timestamp DESC, id DESC
+            ) latest
+            WHERE kind <> 'REMOVED'
+            ORDER BY code
+            """;
+    private static final String SELECT_RANGE_SQL = """
+            SELECT code, rate, timestamp FROM exchange_rates
+            WHERE currency_id = ? AND timestamp >= ? AND timestamp < ? AND kind = 'FETCH'
+            ORDER BY timestamp, code
+            """;
+    private static final String SELECT_PAGE_SQL = """
+            SELECT code, rate, timestamp FROM exchange_rates
+            WHERE currency_id = ? AND (timestamp, code) > (?, ?) AND timestamp < ? AND kind = 'FETCH'
+            ORDER BY timestamp, code
+            LIMIT ?
+            """;
+    /** Creates the month detached, moves its rows out of DEFAULT, then attaches it. */
+    private static final String CREATE_PARTITION_SQL = """
+            DO $$
+            BEGIN
+                IF to_regclass('%1$s') IS NULL THEN
+                    CREATE TABLE %1$s (LIKE exchange_rates INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+                    WITH moved AS (
+                        DELETE FROM exchange_rates_default WHERE timestamp >= '%2$s' AND timestamp < '%3$s'
+                        RETURNING id, currency_id, code, rate, timestamp, kind
+                    )
+                    INSERT INTO %1$s (id, currency_id, code, rate, timestamp, kind) SELECT * FROM moved;
+                    ALTER TABLE exchange_rates ATTACH PARTITION %1$s FOR VALUES FROM ('%2$s') TO ('%3$s');
+                END IF;
+            END $$
+            """;
+    private static final String INSERT_BASELINE_SQL = """
+            INSERT INTO exchange_rates (currency_id, code, rate, timestamp, kind)
+            SELECT latest.currency_id, latest.code, latest.rate, ?, 'BASELINE'
+            FROM (
+                SELECT DISTINCT ON (currency_id, code) currency_id, code, rate, kind
+                FROM exchange_rates
+                WHERE timestamp < ?
+                ORDER BY currency_id, code, timestamp DESC, id DESC
+            ) latest
+            WHERE latest.kind <> 'REMOVED' AND NOT EXISTS (
+                SELECT 1 FROM exchange_rates kept
+                WHERE kept.currency_id = latest.currency_id AND kept.code = latest.code AND kept.timestamp = ?
+            )
+            """;
+    private static final String SELECT_PARTITIONS_SQL = """
+            SELECT child.relname FROM pg_inherits
+            JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+            JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = 'exchange_rates' AND child.relname ~ '^exchange_rates_[0-9]{4}_[0-9]{2}$'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer selectAsOfTimer;
+    private final Timer selectRangeTimer;
+
+    public ExchangeRateHistoryRepository(DataSource dataSource,
+                                         @Value("${history.stream-fetch-size:1000}") int fetchSize,
+                                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.selectAsOfTimer = QueryTimers.of(meterRegistry, "history_as_of");
+        this.selectRangeTimer = QueryTimers.of(meterRegistry, "history_range");
+    }
+
+    public List<ExchangeRateHistoryDto> findRatesAsOf(Long currencyId, String baseCurrencyCode, LocalDateTime at) {
+        return selectAsOfTimer.record(() -> jdbcTemplate.query(SELECT_AS_OF_SQL,
+                (resultSet, rowNum) -> new ExchangeRateHistoryDto(
+                        baseCurrencyCode,
+                        resultSet.getString("code"),
+                        resultSet.getBigDecimal("rate"),
+                        resultSet.getTimestamp("timestamp").toLocalDateTime()),
+                currencyId, Timestamp.valueOf(at)));
+    }
+
+    public void streamRates(Long currencyId, String baseCurrencyCode, LocalDateTime from, LocalDateTime to,
+                            Consumer<ExchangeRateHistoryDto> consumer) {
+        selectRangeTimer.record(() -> jdbcTemplate.query(SELECT_RANGE_SQL,
+                resultSet -> {
+                    consumer.accept(new ExchangeRateHistoryDto(
+                            baseCurrencyCode,
+                            resultSet.getString("code"),
+                            resultSet.getBigDecimal("rate"),
+                            resultSet.getTimestamp("timestamp").toLocalDateTime()));
+                },
+                currencyId, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+    }
+
+    /** Keyset page of up to {@code limit} rates after {@code (afterTimestamp, afterCode)}. */
+    public List<ExchangeRateHistoryDto> findRatesPage(Long currencyId, String baseCurrencyCode, LocalDateTime afterTimestamp,
+                                                      String afterCode, LocalDateTime to, int limit) {
+        return selectRangeTimer.record(() -> jdbcTemplate.query(SELECT_PAGE_SQL,
+                (resultSet, rowNum) -> new ExchangeRateHistoryDto(
+                        baseCurrencyCode,
+                        resultSet.getString("code"),
+                        resultSet.getBigDecimal("rate"),
+                        resultSet.getTimestamp("timestamp").toLocalDateTime()),
+                currencyId, Timestamp.valueOf(afterTimestamp), afterCode, Timestamp.valueOf(to), limit));
+    }
+
+    public void createMonthlyPartition(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        jdbcTemplate.execute(CREATE_PARTITION_SQL.formatted(partitionName(month), start, start.plusMonths(1)));
+    }
+
+    /** Copies each pair's last rate before {@code cutoff} into a {@code BASELINE} row. */
+    public int carryForwardBaseline(LocalDateTime cutoff) {
+        Timestamp timestamp = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.update(INSERT_BASELINE_SQL, timestamp, timestamp, timestamp);
+    }
+
+    public void deleteDefaultPartitionRowsBefore(LocalDateTime cutoff) {
+        jdbcTemplate.update("DELETE FROM exchange_rates_default WHERE timestamp < ?", Timestamp.valueOf(cutoff));
+    }
+
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class).stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
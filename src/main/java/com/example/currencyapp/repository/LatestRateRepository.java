@@ -0,0 +1,70 @@
+package com.example.currencyapp.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class LatestRateRepository {
+    private static final String SELECT_BY_CURRENCY_SQL =
+            "SELECT code, rate FROM latest_rates WHERE currency_id = ?";
+    private static final String SELECT_ALL_SQL = """
+            SELECT c.code AS base_code, l.code, l.rate
+            FROM currencies c
+            LEFT JOIN latest_rates l ON l.currency_id = c.id
+            """;
+    private static final String SELECT_BY_BASE_CODES_SQL = SELECT_ALL_SQL + "WHERE c.code = ANY (?)\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer selectByCurrencyTimer;
+    private final Timer selectAllTimer;
+    private final Timer selectByBaseCodesTimer;
+
+    public LatestRateRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.selectByCurrencyTimer = QueryTimers.of(meterRegistry, "latest_by_currency");
+        this.selectAllTimer = QueryTimers.of(meterRegistry, "latest_all");
+        this.selectByBaseCodesTimer = QueryTimers.of(meterRegistry, "latest_by_base_codes");
+    }
+
+    public Map<String, BigDecimal> findRatesByCurrencyId(Long currencyId) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        selectByCurrencyTimer.record(() -> jdbcTemplate.query(SELECT_BY_CURRENCY_SQL,
+                resultSet -> {
+                    rates.put(resultSet.getString("code"), resultSet.getBigDecimal("rate"));
+                },
+                currencyId));
+        return rates;
+    }
+
+    public Map<String, Map<String, BigDecimal>> findAllRatesByBaseCode() {
+        Map<String, Map<String, BigDecimal>> ratesByBase = new HashMap<>();
+        selectAllTimer.record(() -> jdbcTemplate.query(SELECT_ALL_SQL, ratesByBaseHandler(ratesByBase)));
+        return ratesByBase;
+    }
+
+    public Map<String, Map<String, BigDecimal>> findRatesByBaseCodes(Collection<String> baseCodes) {
+        Map<String, Map<String, BigDecimal>> ratesByBase = new HashMap<>();
+        selectByBaseCodesTimer.record(() -> jdbcTemplate.query(SELECT_BY_BASE_CODES_SQL,
+                ratesByBaseHandler(ratesByBase), (Object) baseCodes.toArray(String[]::new)));
+        return ratesByBase;
+    }
+
+    private static RowCallbackHandler ratesByBaseHandler(Map<String, Map<String, BigDecimal>> ratesByBase) {
+        return resultSet -> {
+            Map<String, BigDecimal> rates = ratesByBase.computeIfAbsent(resultSet.getString("base_code"),
+                    base -> new HashMap<>());
+            String code = resultSet.getString("code");
+            if (code != null) {
+                rates.put(code, resultSet.getBigDecimal("rate"));
+            }
+        };
+    }
+}
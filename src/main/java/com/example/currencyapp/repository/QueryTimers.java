@@ -0,0 +1,16 @@
+package com.example.currencyapp.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+final class QueryTimers {
+    private QueryTimers() {
+    }
+
+    static Timer of(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("exchange_rates.db.queries")
+                .description("Time spent in database reads and writes")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+}
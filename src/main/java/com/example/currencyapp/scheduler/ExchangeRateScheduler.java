@@ -1,23 +1,63 @@
 package com.example.currencyapp.scheduler;
 
+import com.example.currencyapp.cluster.ClusterCacheSync;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.dto.RefreshReport;
 import com.example.currencyapp.service.ExchangeRateService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ExchangeRateScheduler {
 
     private final ExchangeRateService exchangeRateService;
+    private final ObjectProvider<LeaderElection> leaderElection;
+    private final ObjectProvider<ClusterCacheSync> clusterCacheSync;
+    private final Timer refreshTimer;
+    private final Counter succeededBases;
+    private final Counter failedBases;
+
+    public ExchangeRateScheduler(ExchangeRateService exchangeRateService,
+                                 ObjectProvider<LeaderElection> leaderElection,
+                                 ObjectProvider<ClusterCacheSync> clusterCacheSync, MeterRegistry meterRegistry) {
+        this.exchangeRateService = exchangeRateService;
+        this.leaderElection = leaderElection;
+        this.clusterCacheSync = clusterCacheSync;
+        this.refreshTimer = Timer.builder("exchange_rates.refresh")
+                .description("Duration of scheduled refreshes of all bases")
+                .register(meterRegistry);
+        this.succeededBases = Counter.builder("exchange_rates.refresh.bases")
+                .description("Bases processed by scheduled refreshes")
+                .tag("outcome", "succeeded")
+                .register(meterRegistry);
+        this.failedBases = Counter.builder("exchange_rates.refresh.bases")
+                .description("Bases processed by scheduled refreshes")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
 
     @Scheduled(fixedRateString = "${scheduler.update-rates.interval}")
     public void updateAllExchangeRates() {
+        LeaderElection election = leaderElection.getIfAvailable();
+        if (election != null && !election.isLeader()) {
+            log.debug("Skipping scheduled update: another node holds the refresh leader lock.");
+            return;
+        }
         log.info("Scheduled task: Updating exchange rates for all currencies...");
         try {
-            exchangeRateService.updateAllExchangeRates();
+            RefreshReport report = exchangeRateService.updateAllExchangeRates();
+            clusterCacheSync.ifAvailable(sync -> sync.announce(report.changedBases()));
+            refreshTimer.record(report.duration());
+            succeededBases.increment(report.succeeded());
+            failedBases.increment(report.failed());
+            log.info("Exchange rate update finished in {} ms: {} succeeded, {} failed.",
+                    report.duration().toMillis(), report.succeeded(), report.failed());
         } catch (Exception e) {
             log.error("Failed to update exchange rates: {}", e.getMessage());
         }
@@ -0,0 +1,67 @@
+package com.example.currencyapp.scheduler;
+
+import com.example.currencyapp.cache.SnapshotFileStore;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.service.ExchangeRateHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Component
+public class HistoryPartitionScheduler {
+
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
+    private final ObjectProvider<LeaderElection> leaderElection;
+    private final ObjectProvider<SnapshotFileStore> snapshotFileStore;
+    private final Executor startupExecutor;
+
+    @Autowired
+    public HistoryPartitionScheduler(ExchangeRateHistoryService exchangeRateHistoryService,
+                                     ObjectProvider<LeaderElection> leaderElection,
+                                     ObjectProvider<SnapshotFileStore> snapshotFileStore) {
+        this(exchangeRateHistoryService, leaderElection, snapshotFileStore,
+                task -> Thread.ofVirtual().name("partition-maintenance").start(task));
+    }
+
+    HistoryPartitionScheduler(ExchangeRateHistoryService exchangeRateHistoryService,
+                              ObjectProvider<LeaderElection> leaderElection,
+                              ObjectProvider<SnapshotFileStore> snapshotFileStore, Executor startupExecutor) {
+        this.exchangeRateHistoryService = exchangeRateHistoryService;
+        this.leaderElection = leaderElection;
+        this.snapshotFileStore = snapshotFileStore;
+        this.startupExecutor = startupExecutor;
+    }
+
+    /** Runs in the background when the cache was restored from the snapshot file. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainPartitionsOnStartup() {
+        SnapshotFileStore store = snapshotFileStore.getIfAvailable();
+        if (store != null && store.isRestored()) {
+            startupExecutor.execute(this::maintainPartitions);
+            return;
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${scheduler.history-partitions.cron}")
+    public void maintainPartitions() {
+        LeaderElection election = leaderElection.getIfAvailable();
+        if (election != null && !election.isLeader()) {
+            log.debug("Skipping partition maintenance: another node holds the refresh leader lock.");
+            return;
+        }
+        log.info("Scheduled task: Maintaining exchange rate history partitions...");
+        try {
+            exchangeRateHistoryService.maintainPartitions();
+        } catch (Exception e) {
+            log.error("Failed to maintain history partitions: {}", e.getMessage());
+        }
+    }
+}
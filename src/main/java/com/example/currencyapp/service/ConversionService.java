@@ -0,0 +1,12 @@
+package com.example.currencyapp.service;
+
+import com.example.currencyapp.dto.ConversionBatchRequest;
+import com.example.currencyapp.dto.ConversionBatchResponse;
+import com.example.currencyapp.dto.ConversionDto;
+
+import java.math.BigDecimal;
+
+public interface ConversionService {
+    ConversionDto convert(String fromCurrencyCode, String toCurrencyCode, BigDecimal amount);
+    ConversionBatchResponse convertAll(ConversionBatchRequest request);
+}
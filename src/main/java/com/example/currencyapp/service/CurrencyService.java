@@ -2,9 +2,12 @@ package com.example.currencyapp.service;
 
 import com.example.currencyapp.dto.CurrencyDto;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface CurrencyService {
     List<CurrencyDto> getAllCurrencies();
     void addCurrency(String currencyCode);
+    void addCurrency(String currencyCode, Map<String, BigDecimal> rates);
 }
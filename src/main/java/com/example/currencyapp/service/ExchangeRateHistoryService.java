@@ -0,0 +1,16 @@
+package com.example.currencyapp.service;
+
+import com.example.currencyapp.dto.ExchangeRateDto;
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ExchangeRateHistoryService {
+    List<ExchangeRateDto> getExchangeRatesAt(String baseCurrencyCode, Instant at);
+    void validateHistoryRequest(String baseCurrencyCode, Instant from, Instant to);
+    void streamHistory(String baseCurrencyCode, Instant from, Instant to, Consumer<ExchangeRateHistoryDto> consumer);
+    List<ExchangeRateHistoryDto> getHistoryPage(String baseCurrencyCode, Instant from, Instant to, ExchangeRateHistoryDto after);
+    void maintainPartitions();
+}
@@ -1,10 +1,25 @@
 package com.example.currencyapp.service;
 
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.CompactRateTable;
 import com.example.currencyapp.dto.ExchangeRateDto;
+import com.example.currencyapp.dto.RefreshReport;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface ExchangeRateService {
     List<ExchangeRateDto> getExchangeRates(String baseCurrencyCode);
-    void updateAllExchangeRates();
+    RatesSnapshot getRatesSnapshot(String baseCurrencyCode);
+    Optional<RatesSnapshot> findCachedSnapshot(String baseCurrencyCode);
+    List<ExchangeRateDto> getExchangeRates(RatesSnapshot snapshot, String baseCurrencyCode);
+    RatesSnapshot getCachedRatesSnapshot(Collection<String> baseCurrencyCodes);
+    Map<String, Map<String, BigDecimal>> getRates(RatesSnapshot snapshot, Collection<String> baseCurrencyCodes,
+                                                  Collection<String> quoteCurrencyCodes);
+    CompactRateTable getCompactRates(RatesSnapshot snapshot, Collection<String> baseCurrencyCodes,
+                                     Collection<String> quoteCurrencyCodes);
+    RefreshReport updateAllExchangeRates();
 }
@@ -0,0 +1,87 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.ConversionBatchRequest;
+import com.example.currencyapp.dto.ConversionBatchResponse;
+import com.example.currencyapp.dto.ConversionDto;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.InvalidRequestException;
+import com.example.currencyapp.service.ConversionService;
+import com.example.currencyapp.service.ExchangeRateService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ConversionServiceImpl implements ConversionService {
+    private final ExchangeRateCache cache;
+    private final ExchangeRateService exchangeRateService;
+    private final int scale;
+    private final RoundingMode roundingMode;
+    private final int maxBatchSize;
+
+    public ConversionServiceImpl(ExchangeRateCache cache, ExchangeRateService exchangeRateService,
+                                 @Value("${conversion.scale:4}") int scale,
+                                 @Value("${conversion.rounding-mode:HALF_EVEN}") RoundingMode roundingMode,
+                                 @Value("${conversion.max-batch-size:10000}") int maxBatchSize) {
+        this.cache = cache;
+        this.exchangeRateService = exchangeRateService;
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public ConversionDto convert(String fromCurrencyCode, String toCurrencyCode, BigDecimal amount) {
+        if (amount == null) {
+            throw new InvalidRequestException("Amount is required.");
+        }
+        String from = fromCurrencyCode.toUpperCase();
+        String to = toCurrencyCode.toUpperCase();
+        BigDecimal rate = resolveRate(from, to);
+        return new ConversionDto(from, to, amount, rate, amount.multiply(rate).setScale(scale, roundingMode));
+    }
+
+    @Override
+    public ConversionBatchResponse convertAll(ConversionBatchRequest request) {
+        if (request.getFrom() == null || request.getTo() == null || request.getAmounts() == null) {
+            throw new InvalidRequestException("Fields from, to and amounts are required.");
+        }
+        List<BigDecimal> amounts = request.getAmounts();
+        if (amounts.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " amounts can be converted in one call.");
+        }
+
+        String from = request.getFrom().toUpperCase();
+        String to = request.getTo().toUpperCase();
+        BigDecimal rate = resolveRate(from, to);
+        List<BigDecimal> results = new ArrayList<>(amounts.size());
+        for (BigDecimal amount : amounts) {
+            if (amount == null) {
+                throw new InvalidRequestException("Amounts must not contain null values.");
+            }
+            results.add(amount.multiply(rate).setScale(scale, roundingMode));
+        }
+        return new ConversionBatchResponse(from, to, rate, results);
+    }
+
+    /** Reads the source base, or the target base for an inverse rate, under the rate TTL policy. */
+    private BigDecimal resolveRate(String from, String to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        String base = cache.hasRates(from) || !cache.hasRates(to) ? from : to;
+        RatesSnapshot snapshot = exchangeRateService.findCachedSnapshot(base)
+                .orElseGet(() -> exchangeRateService.getRatesSnapshot(base));
+        BigDecimal rate = snapshot.rateOrInverse(from, to);
+        if (rate == null) {
+            throw new CurrencyNotFoundException("Rate from " + from + " to " + to + " is not available.");
+        }
+        return rate;
+    }
+}
@@ -1,122 +1,131 @@
 package com.example.currencyapp.service.impl;
 
-import com.example.currencyapp.client.ExchangeRatesClient;
 import com.example.currencyapp.dto.CurrencyDto;
 import com.example.currencyapp.dto.ExchangeRateResponse;
 import com.example.currencyapp.entity.Currency;
-import com.example.currencyapp.entity.ExchangeRate;
 import com.example.currencyapp.exception.CurrencyAlreadyExistsException;
 import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.provider.HedgedRateSource;
 import com.example.currencyapp.repository.CurrencyRepository;
-import com.example.currencyapp.repository.ExchangeRateRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
 import com.example.currencyapp.service.CurrencyService;
 import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.ClusterCacheSync;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CurrencyServiceImpl implements CurrencyService {
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String CURRENCY_CODE_CONSTRAINT = "currencies_code_key";
+
     private final CurrencyRepository currencyRepository;
-    private final ExchangeRateRepository exchangeRateRepository;
-    private final ExchangeRatesClient exchangeRatesClient;
+    private final LatestRateRepository latestRateRepository;
+    private final ExchangeRateBatchWriter exchangeRateBatchWriter;
+    private final HedgedRateSource rateSource;
     private final ExchangeRateCache cache;
+    private final SingleFlightLoader singleFlightLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ClusterCacheSync> clusterCacheSync;
 
+    /** Cached bases plus every saved code. */
     @Override
     public List<CurrencyDto> getAllCurrencies() {
-        if (!cache.isEmpty()) {
-            return getCurrenciesFromCache();
+        Set<String> codes = new LinkedHashSet<>(getCachedBases());
+        codes.addAll(currencyRepository.findAllCodes());
+        if (codes.isEmpty()) {
+            throw new CurrencyNotFoundException("No currencies available.");
         }
+        return codes.stream()
+                .map(CurrencyDto::new)
+                .toList();
+    }
 
-        List<Currency> currencies = getCurrenciesFromDatabase();
-        updateCacheFromDatabase(currencies);
-        return mapCurrenciesToDto(currencies);
+    private List<String> getCachedBases() {
+        if (cache.isEmpty()) {
+            log.info("Loading currencies from database...");
+            Map<String, Map<String, BigDecimal>> ratesByBase = latestRateRepository.findAllRatesByBaseCode();
+            cache.publish(ratesByBase);
+        }
+        return cache.snapshot().matrix().baseCodes();
     }
 
+    /** Coalesces the upstream fetch; the unique code constraint settles concurrent inserts. */
     @Override
     public void addCurrency(String currencyCode) {
         String upperCurrencyCode = currencyCode.toUpperCase();
-
         if (currencyRepository.existsByCode(upperCurrencyCode)) {
-            throw new CurrencyAlreadyExistsException("Currency with code " + upperCurrencyCode + " already exists.");
+            throw alreadyExists(upperCurrencyCode);
         }
 
-        ExchangeRateResponse response = fetchExchangeRatesFromApi(upperCurrencyCode);
-        saveCurrencyAndExchangeRates(upperCurrencyCode, response.getRates());
-        cache.updateRates(upperCurrencyCode, response.getRates());
-
-        log.info("Currency {} successfully added.", upperCurrencyCode);
+        ExchangeRateResponse response = singleFlightLoader.load("add-currency", upperCurrencyCode,
+                () -> rateSource.fetchRates(upperCurrencyCode));
+        saveAndPublish(upperCurrencyCode, response.getRates());
     }
 
-    private List<CurrencyDto> getCurrenciesFromCache() {
-        log.info("Returning currencies from cache.");
-        return cache.getAllRates().keySet().stream()
-                .map(CurrencyDto::new)
-                .toList();
-    }
-
-    private List<Currency> getCurrenciesFromDatabase() {
-        log.info("Loading currencies from database...");
-        List<Currency> currencies = currencyRepository.findAll();
-        if (currencies.isEmpty()) {
-            throw new CurrencyNotFoundException("No currencies available.");
+    /** Adds a currency with rates the caller already fetched. */
+    @Override
+    public void addCurrency(String currencyCode, Map<String, BigDecimal> rates) {
+        String upperCurrencyCode = currencyCode.toUpperCase();
+        if (currencyRepository.existsByCode(upperCurrencyCode)) {
+            throw alreadyExists(upperCurrencyCode);
         }
-        return currencies;
-    }
-
-    private void updateCacheFromDatabase(List<Currency> currencies) {
-        log.info("Updating cache with data from database...");
-        currencies.forEach(currency -> {
-            List<ExchangeRate> rates = exchangeRateRepository.findByCurrency(currency);
-            Map<String, BigDecimal> rateMap = rates.stream()
-                    .collect(Collectors.toMap(ExchangeRate::getCode, ExchangeRate::getRate));
-            cache.updateRates(currency.getCode(), rateMap);
-        });
-    }
-
-    private List<CurrencyDto> mapCurrenciesToDto(List<Currency> currencies) {
-        return currencies.stream()
-                .map(currency -> new CurrencyDto(currency.getCode()))
-                .toList();
+        saveAndPublish(upperCurrencyCode, rates);
     }
 
-    private ExchangeRateResponse fetchExchangeRatesFromApi(String currencyCode) {
+    private void saveAndPublish(String currencyCode, Map<String, BigDecimal> rates) {
         try {
-            return exchangeRatesClient.getExchangeRates(currencyCode);
-        } catch (ResponseStatusException e) {
-            if (e.getStatusCode().is4xxClientError()) {
-                throw new CurrencyNotFoundException("Currency not found in external service: " + currencyCode);
+            transactionTemplate.executeWithoutResult(status -> saveCurrencyAndExchangeRates(currencyCode, rates));
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateCode(e)) {
+                throw alreadyExists(currencyCode);
             }
-            throw new RuntimeException("External service error.");
+            throw e;
         }
+        cache.updateRates(currencyCode, rates);
+        clusterCacheSync.ifAvailable(sync -> sync.announce(Set.of(currencyCode)));
+
+        log.info("Currency {} successfully added.", currencyCode);
     }
 
     private void saveCurrencyAndExchangeRates(String currencyCode, Map<String, BigDecimal> rates) {
-        Currency currency = currencyRepository.save(
+        Currency currency = currencyRepository.saveAndFlush(
                 Currency.builder()
                         .code(currencyCode)
                         .build()
         );
 
-        List<ExchangeRate> exchangeRates = rates.entrySet().stream()
-                .map(entry -> ExchangeRate.builder()
-                        .currency(currency)
-                        .code(entry.getKey())
-                        .rate(entry.getValue())
-                        .timestamp(LocalDateTime.now())
-                        .build())
-                .toList();
+        exchangeRateBatchWriter.saveRates(currency.getId(), rates, LocalDateTime.now());
+    }
+
+    private static boolean isDuplicateCode(DataIntegrityViolationException e) {
+        if (!(e.getMostSpecificCause() instanceof PSQLException psqlException)
+                || !UNIQUE_VIOLATION.equals(psqlException.getSQLState())) {
+            return false;
+        }
+        ServerErrorMessage serverError = psqlException.getServerErrorMessage();
+        return serverError != null && CURRENCY_CODE_CONSTRAINT.equals(serverError.getConstraint());
+    }
 
-        exchangeRateRepository.saveAll(exchangeRates);
+    private static CurrencyAlreadyExistsException alreadyExists(String currencyCode) {
+        return new CurrencyAlreadyExistsException("Currency with code " + currencyCode + " already exists.");
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.dto.ExchangeRateDto;
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
+import com.example.currencyapp.entity.Currency;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.InvalidRequestException;
+import com.example.currencyapp.repository.CurrencyRepository;
+import com.example.currencyapp.repository.ExchangeRateHistoryRepository;
+import com.example.currencyapp.service.ExchangeRateHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class ExchangeRateHistoryServiceImpl implements ExchangeRateHistoryService {
+    private final CurrencyRepository currencyRepository;
+    private final ExchangeRateHistoryRepository historyRepository;
+    private final int retentionMonths;
+    private final int partitionsAhead;
+    private final int pageSize;
+
+    public ExchangeRateHistoryServiceImpl(CurrencyRepository currencyRepository,
+                                          ExchangeRateHistoryRepository historyRepository,
+                                          @Value("${history.retention-months:24}") int retentionMonths,
+                                          @Value("${history.partitions-ahead:2}") int partitionsAhead,
+                                          @Value("${history.page-size:1000}") int pageSize) {
+        this.currencyRepository = currencyRepository;
+        this.historyRepository = historyRepository;
+        this.retentionMonths = retentionMonths;
+        this.partitionsAhead = partitionsAhead;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public List<ExchangeRateDto> getExchangeRatesAt(String baseCurrencyCode, Instant at) {
+        Currency currency = findCurrency(baseCurrencyCode);
+        List<ExchangeRateHistoryDto> rates = historyRepository.findRatesAsOf(currency.getId(), currency.getCode(), toLocal(at));
+        if (rates.isEmpty()) {
+            throw new CurrencyNotFoundException("Rates for " + currency.getCode() + " not found at " + at + ".");
+        }
+        return rates.stream()
+                .map(rate -> new ExchangeRateDto(rate.getBaseCurrencyCode(), rate.getCurrencyCode(), rate.getRate()))
+                .toList();
+    }
+
+    @Override
+    public void validateHistoryRequest(String baseCurrencyCode, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("Parameter 'from' must be before 'to'.");
+        }
+        findCurrency(baseCurrencyCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamHistory(String baseCurrencyCode, Instant from, Instant to, Consumer<ExchangeRateHistoryDto> consumer) {
+        Currency currency = findCurrency(baseCurrencyCode);
+        historyRepository.streamRates(currency.getId(), currency.getCode(), toLocal(from), toLocal(to), consumer);
+    }
+
+    /** Next page of the range after {@code after}; an empty page ends it. */
+    @Override
+    public List<ExchangeRateHistoryDto> getHistoryPage(String baseCurrencyCode, Instant from, Instant to,
+                                                       ExchangeRateHistoryDto after) {
+        Currency currency = findCurrency(baseCurrencyCode);
+        return after == null
+                ? historyRepository.findRatesPage(currency.getId(), currency.getCode(), toLocal(from), "", toLocal(to), pageSize)
+                : historyRepository.findRatesPage(currency.getId(), currency.getCode(), after.getTimestamp(),
+                        after.getCurrencyCode(), toLocal(to), pageSize);
+    }
+
+    @Override
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        for (int offset = 0; offset <= partitionsAhead; offset++) {
+            YearMonth month = currentMonth.plusMonths(offset);
+            try {
+                historyRepository.createMonthlyPartition(month);
+            } catch (DataAccessException e) {
+                log.error("Failed to create history partition for {}: {}", month, e.getMessage());
+            }
+        }
+
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        List<YearMonth> expired = historyRepository.findMonthlyPartitions().stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        LocalDateTime cutoff = oldestKept.atDay(1).atStartOfDay();
+        int carried = historyRepository.carryForwardBaseline(cutoff);
+        log.info("Carried {} baseline rates forward to {} before dropping expired history.", carried, cutoff);
+        expired.forEach(month -> {
+            historyRepository.dropMonthlyPartition(month);
+            log.info("Dropped history partition for {}.", month);
+        });
+        historyRepository.deleteDefaultPartitionRowsBefore(cutoff);
+    }
+
+    private Currency findCurrency(String baseCurrencyCode) {
+        String code = baseCurrencyCode.toUpperCase();
+        return currencyRepository.findByCode(code)
+                .orElseThrow(() -> new CurrencyNotFoundException("Currency " + code + " not found."));
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
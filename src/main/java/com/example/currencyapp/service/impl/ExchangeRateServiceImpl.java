@@ -1,123 +1,378 @@
 package com.example.currencyapp.service.impl;
 
-import com.example.currencyapp.client.ExchangeRatesClient;
+import com.example.currencyapp.dto.CompactRateTable;
 import com.example.currencyapp.dto.ExchangeRateDto;
 import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.dto.RefreshReport;
 import com.example.currencyapp.entity.Currency;
-import com.example.currencyapp.entity.ExchangeRate;
 import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.provider.HedgedRateSource;
 import com.example.currencyapp.repository.CurrencyRepository;
-import com.example.currencyapp.repository.ExchangeRateRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
+import com.example.currencyapp.cache.CacheTtlProperties;
+import com.example.currencyapp.cache.CurrencyIndex;
 import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.Freshness;
+import com.example.currencyapp.cache.RateMatrix;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.rate.CrossRateEngine;
 import com.example.currencyapp.service.ExchangeRateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ExchangeRateServiceImpl implements ExchangeRateService {
 
-    private final ExchangeRatesClient exchangeRatesClient;
+    private final HedgedRateSource rateSource;
     private final CurrencyRepository currencyRepository;
-    private final ExchangeRateRepository exchangeRateRepository;
+    private final LatestRateRepository latestRateRepository;
+    private final ExchangeRateBatchWriter exchangeRateBatchWriter;
     private final ExchangeRateCache cache;
+    private final SingleFlightLoader singleFlightLoader;
+    private final CrossRateEngine crossRateEngine;
+    private final RefreshTaskRunner refreshTaskRunner;
+    private final CacheTtlProperties cacheTtlProperties;
+    private final ExecutorService backgroundRefreshExecutor;
+    private final ObjectProvider<LeaderElection> leaderElection;
+    private final Set<String> refreshingBases = ConcurrentHashMap.newKeySet();
+    private final Map<String, LocalDate> publicationDates = new ConcurrentHashMap<>();
 
     @Override
     public List<ExchangeRateDto> getExchangeRates(String baseCurrencyCode) {
+        return getExchangeRates(getRatesSnapshot(baseCurrencyCode), baseCurrencyCode);
+    }
+
+    @Override
+    public RatesSnapshot getRatesSnapshot(String baseCurrencyCode) {
         String baseCodeUpperCase = baseCurrencyCode.toUpperCase();
 
-        if (!cache.hasRates(baseCodeUpperCase)) {
-            log.info("Rates for {} not found in memory. Checking the database...", baseCodeUpperCase);
-            Map<String, BigDecimal> ratesMap = loadRatesAndUpdateCache(baseCodeUpperCase);
-            cache.updateRates(baseCodeUpperCase, ratesMap);
+        Duration softTtl = cacheTtlProperties.softFor(baseCodeUpperCase);
+        Duration hardTtl = cacheTtlProperties.hardFor(baseCodeUpperCase);
+        switch (cache.freshness(baseCodeUpperCase, softTtl, hardTtl)) {
+            case MISSING -> singleFlightLoader.load("rates", baseCodeUpperCase, () -> {
+                if (cache.hasRates(baseCodeUpperCase)) {
+                    return null;
+                }
+                log.debug("Rates for {} not found in memory. Checking the database...", baseCodeUpperCase);
+                return loadRatesAndUpdateCache(baseCodeUpperCase);
+            });
+            case STALE -> refreshInBackground(baseCodeUpperCase);
+            case EXPIRED -> {
+                try {
+                    singleFlightLoader.load("refresh", baseCodeUpperCase, () ->
+                            cache.freshness(baseCodeUpperCase, softTtl, hardTtl) == Freshness.EXPIRED
+                                    ? refreshBase(baseCodeUpperCase)
+                                    : null);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh expired rates for {}. Serving cached rates: {}",
+                            baseCodeUpperCase, e.getMessage());
+                }
+            }
+            case FRESH -> {
+            }
         }
+        return cache.snapshot();
+    }
 
-        Map<String, BigDecimal> rates = cache.getRatesForCurrency(baseCodeUpperCase);
-        return rates.entrySet().stream()
-                .map(entry -> new ExchangeRateDto(
-                        baseCodeUpperCase,
-                        entry.getKey(),
-                        entry.getValue()
-                ))
-                .collect(Collectors.toList());
+    @Override
+    public Optional<RatesSnapshot> findCachedSnapshot(String baseCurrencyCode) {
+        String baseCodeUpperCase = baseCurrencyCode.toUpperCase();
+        Freshness freshness = cache.freshness(baseCodeUpperCase,
+                cacheTtlProperties.softFor(baseCodeUpperCase), cacheTtlProperties.hardFor(baseCodeUpperCase));
+        return switch (freshness) {
+            case FRESH -> Optional.of(cache.snapshot());
+            case STALE -> {
+                refreshInBackground(baseCodeUpperCase);
+                yield Optional.of(cache.snapshot());
+            }
+            case MISSING, EXPIRED -> Optional.empty();
+        };
     }
 
     @Override
-    public void updateAllExchangeRates() {
+    public List<ExchangeRateDto> getExchangeRates(RatesSnapshot snapshot, String baseCurrencyCode) {
+        String baseCodeUpperCase = baseCurrencyCode.toUpperCase();
+        RateMatrix matrix = snapshot.matrix();
+        int base = matrix.ordinalOf(baseCodeUpperCase);
+        if (!matrix.isBase(base)) {
+            throw new CurrencyNotFoundException("Rates for " + baseCodeUpperCase + " not found.");
+        }
+        List<ExchangeRateDto> rates = new ArrayList<>(matrix.size());
+        for (int quote = 0; quote < matrix.size(); quote++) {
+            long rate = matrix.rate(base, quote);
+            if (rate != RateMatrix.MISSING) {
+                rates.add(new ExchangeRateDto(baseCodeUpperCase, matrix.codeOf(quote), RateMatrix.toDecimal(rate)));
+            }
+        }
+        return rates;
+    }
+
+    /** Current snapshot without I/O; stale or expired bases refresh in the background. */
+    @Override
+    public RatesSnapshot getCachedRatesSnapshot(Collection<String> baseCurrencyCodes) {
+        if (baseCurrencyCodes == null || baseCurrencyCodes.isEmpty()) {
+            return cache.snapshot();
+        }
+        List<String> missing = new ArrayList<>();
+        for (String baseCurrencyCode : baseCurrencyCodes) {
+            String baseCodeUpperCase = baseCurrencyCode.toUpperCase();
+            Freshness freshness = cache.freshness(baseCodeUpperCase,
+                    cacheTtlProperties.softFor(baseCodeUpperCase), cacheTtlProperties.hardFor(baseCodeUpperCase));
+            switch (freshness) {
+                case MISSING -> missing.add(baseCodeUpperCase);
+                case STALE, EXPIRED -> refreshInBackground(baseCodeUpperCase);
+                case FRESH -> {
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new CurrencyNotFoundException("Rates for " + String.join(", ", missing) + " not found.");
+        }
+        return cache.snapshot();
+    }
+
+    @Override
+    public Map<String, Map<String, BigDecimal>> getRates(RatesSnapshot snapshot, Collection<String> baseCurrencyCodes,
+                                                         Collection<String> quoteCurrencyCodes) {
+        RateMatrix matrix = snapshot.matrix();
+        int[] quotes = quoteOrdinals(matrix, quoteCurrencyCodes);
+
+        Map<String, Map<String, BigDecimal>> ratesByBase = new LinkedHashMap<>();
+        for (int base : baseOrdinals(matrix, baseCurrencyCodes)) {
+            Map<String, BigDecimal> rates = new LinkedHashMap<>();
+            for (int quote : quotes) {
+                long rate = matrix.rate(base, quote);
+                if (rate != RateMatrix.MISSING) {
+                    rates.put(matrix.codeOf(quote), RateMatrix.toDecimal(rate));
+                }
+            }
+            ratesByBase.put(matrix.codeOf(base), rates);
+        }
+        return ratesByBase;
+    }
+
+    @Override
+    public CompactRateTable getCompactRates(RatesSnapshot snapshot, Collection<String> baseCurrencyCodes,
+                                            Collection<String> quoteCurrencyCodes) {
+        RateMatrix matrix = snapshot.matrix();
+        int[] bases = baseOrdinals(matrix, baseCurrencyCodes);
+        int[] quotes = quoteCurrencyCodes == null || quoteCurrencyCodes.isEmpty()
+                ? IntStream.range(0, matrix.size())
+                        .filter(quote -> Arrays.stream(bases).anyMatch(base -> matrix.rate(base, quote) != RateMatrix.MISSING))
+                        .toArray()
+                : quoteOrdinals(matrix, quoteCurrencyCodes);
+
+        Map<Integer, Integer> codeIndexes = new LinkedHashMap<>();
+        int[] baseIndexes = new int[bases.length];
+        int[] quoteIndexes = new int[quotes.length];
+        long[] rates = new long[bases.length * quotes.length];
+        long version = 0;
+        for (int i = 0; i < bases.length; i++) {
+            baseIndexes[i] = codeIndexes.computeIfAbsent(bases[i], ordinal -> codeIndexes.size());
+            version = Math.max(version, matrix.rowVersion(bases[i]));
+        }
+        for (int j = 0; j < quotes.length; j++) {
+            quoteIndexes[j] = codeIndexes.computeIfAbsent(quotes[j], ordinal -> codeIndexes.size());
+        }
+        for (int i = 0; i < bases.length; i++) {
+            for (int j = 0; j < quotes.length; j++) {
+                rates[i * quotes.length + j] = matrix.rate(bases[i], quotes[j]);
+            }
+        }
+        List<String> codes = codeIndexes.keySet().stream().map(matrix::codeOf).toList();
+        return new CompactRateTable(version, RateMatrix.SCALE, codes, baseIndexes, quoteIndexes, rates);
+    }
+
+    private static int[] baseOrdinals(RateMatrix matrix, Collection<String> baseCurrencyCodes) {
+        if (baseCurrencyCodes == null || baseCurrencyCodes.isEmpty()) {
+            return matrix.baseCodes().stream().mapToInt(matrix::ordinalOf).toArray();
+        }
+        return baseCurrencyCodes.stream()
+                .mapToInt(code -> matrix.ordinalOf(code.toUpperCase()))
+                .filter(matrix::isBase)
+                .distinct()
+                .toArray();
+    }
+
+    private static int[] quoteOrdinals(RateMatrix matrix, Collection<String> quoteCurrencyCodes) {
+        if (quoteCurrencyCodes == null || quoteCurrencyCodes.isEmpty()) {
+            return IntStream.range(0, matrix.size()).toArray();
+        }
+        return quoteCurrencyCodes.stream()
+                .mapToInt(code -> matrix.ordinalOf(code.toUpperCase()))
+                .filter(ordinal -> ordinal != CurrencyIndex.UNKNOWN)
+                .distinct()
+                .toArray();
+    }
+
+    @Override
+    public RefreshReport updateAllExchangeRates() {
         if (currencyRepository.count() == 0) {
             log.warn("No currencies found in the database. Skipping scheduled update.");
-            return;
+            return RefreshReport.empty();
         }
 
         log.info("Currencies found. Proceeding with exchange rate update...");
         List<Currency> currencies = currencyRepository.findAll();
+        ExchangeRateResponse pivotResponse = rateSource.fetchRates(crossRateEngine.getPivotCurrency());
 
-        currencies.forEach(currency -> {
-            try {
-                updateRatesFromApi(currency.getCode());
-                log.info("Exchange rates for {} updated successfully.", currency.getCode());
-            } catch (CurrencyNotFoundException e) {
-                log.warn("Currency not found: {}. Skipping...", currency.getCode());
-            } catch (Exception e) {
-                log.error("Failed to update exchange rates for {}: {}", currency.getCode(), e.getMessage());
+        Map<String, BaseRefresh> refreshed = new ConcurrentHashMap<>();
+        RefreshReport report = refreshTaskRunner.run(currencies, Currency::getCode,
+                currency -> refreshed.put(currency.getCode(), updateRates(currency, pivotResponse)));
+        Map<String, BaseRefresh> completed = Map.copyOf(refreshed);
+        Map<String, Map<String, BigDecimal>> changedRates = new HashMap<>();
+        Set<String> unchangedBases = new HashSet<>();
+        completed.forEach((code, result) -> {
+            if (result.changed()) {
+                changedRates.put(code, result.rates());
+            } else {
+                unchangedBases.add(code);
             }
         });
+        cache.publish(Map.copyOf(changedRates));
+        cache.markRevalidated(Set.copyOf(unchangedBases));
+        completed.forEach((code, result) -> recordPublicationDate(code, result.date()));
+        log.debug("{} bases changed, {} unchanged.", changedRates.size(), unchangedBases.size());
+        report.failures().forEach((code, reason) ->
+                log.error("Failed to update exchange rates for {}: {}", code, reason));
+        return report.withChangedBases(changedRates.keySet());
+    }
+
+    private void refreshInBackground(String currencyCode) {
+        if (!refreshingBases.add(currencyCode)) {
+            return;
+        }
+        try {
+            backgroundRefreshExecutor.execute(() -> {
+                try {
+                    singleFlightLoader.load("refresh", currencyCode, () -> refreshBase(currencyCode));
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of {} failed: {}", currencyCode, e.getMessage());
+                } finally {
+                    refreshingBases.remove(currencyCode);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingBases.remove(currencyCode);
+            log.warn("Background refresh of {} rejected: {}", currencyCode, e.getMessage());
+        }
+    }
+
+    private Map<String, BigDecimal> refreshBase(String currencyCode) {
+        LeaderElection election = leaderElection.getIfAvailable();
+        if (election != null && !election.isLeaderAsOfLastCheck()) {
+            return reloadBase(currencyCode);
+        }
+        Currency currency = currencyRepository.findByCode(currencyCode)
+                .orElseThrow(() -> new CurrencyNotFoundException("Rates for " + currencyCode + " not found."));
+        String pivot = crossRateEngine.getPivotCurrency();
+        ExchangeRateResponse pivotResponse = singleFlightLoader.load("pivot", pivot, () -> rateSource.fetchRates(pivot));
+        BaseRefresh result = updateRates(currency, pivotResponse);
+        if (result.changed()) {
+            cache.updateRates(currencyCode, result.rates());
+        } else {
+            cache.markRevalidated(Set.of(currencyCode));
+        }
+        recordPublicationDate(currencyCode, result.date());
+        log.debug("Refreshed rates for {}.", currencyCode);
+        return result.changed() ? result.rates() : cache.getRatesForCurrency(currencyCode);
+    }
+
+    /** Refresh on a follower: reloads the leader's rows from {@code latest_rates}. */
+    private Map<String, BigDecimal> reloadBase(String currencyCode) {
+        Map<String, BigDecimal> rates = latestRateRepository.findRatesByBaseCodes(Set.of(currencyCode)).get(currencyCode);
+        if (rates == null) {
+            throw new CurrencyNotFoundException("Rates for " + currencyCode + " not found.");
+        }
+        RatesSnapshot snapshot = cache.snapshot();
+        Map<String, BigDecimal> cached = snapshot.ratesFor(currencyCode);
+        if (cached != null && cached.size() == rates.size() && snapshot.changedRates(currencyCode, rates).isEmpty()) {
+            cache.markRevalidated(Set.of(currencyCode));
+        } else {
+            cache.publishFromPeer(Map.of(currencyCode, rates));
+        }
+        log.debug("Reloaded rates for {} from the database.", currencyCode);
+        return rates;
     }
 
     private Map<String, BigDecimal> loadRatesAndUpdateCache(String currencyCode) {
         return currencyRepository.findByCode(currencyCode)
                 .map(currency -> {
-                    log.info("Rates for {} found in the database. Updating cache...", currencyCode);
-                    List<ExchangeRate> rates = exchangeRateRepository.findByCurrency(currency);
-                    Map<String, BigDecimal> rateMap = rates.stream()
-                            .collect(Collectors.toMap(ExchangeRate::getCode, ExchangeRate::getRate));
+                    log.debug("Rates for {} found in the database. Updating cache...", currencyCode);
+                    Map<String, BigDecimal> rateMap = latestRateRepository.findRatesByCurrencyId(currency.getId());
                     cache.updateRates(currencyCode, rateMap);
                     return rateMap;
                 })
                 .orElseThrow(() -> new CurrencyNotFoundException("Rates for " + currencyCode + " not found."));
     }
 
-    private void updateRatesFromApi(String baseCurrencyCode) {
-        ExchangeRateResponse response = fetchRatesFromApi(baseCurrencyCode);
-        Currency baseCurrency = currencyRepository.findByCode(baseCurrencyCode)
-                .orElseGet(() -> currencyRepository.save(Currency.builder()
-                        .code(baseCurrencyCode)
-                        .build()));
+    /** Persists the changed pairs and returns the full row, or none when nothing changed. */
+    private BaseRefresh updateRates(Currency baseCurrency, ExchangeRateResponse pivotResponse) {
+        String baseCurrencyCode = baseCurrency.getCode();
+        ExchangeRateResponse response;
+        Map<String, BigDecimal> rates;
+        if (crossRateEngine.canDerive(baseCurrencyCode, pivotResponse.getRates())) {
+            response = pivotResponse;
+            rates = crossRateEngine.derive(baseCurrencyCode, pivotResponse.getRates());
+        } else {
+            log.warn("{} is not quoted against {}. Fetching its rates directly...",
+                    baseCurrencyCode, crossRateEngine.getPivotCurrency());
+            response = rateSource.fetchRates(baseCurrencyCode);
+            rates = response.getRates();
+        }
 
-        List<ExchangeRate> exchangeRates = mapApiResponseToEntities(baseCurrency, response.getRates());
-        exchangeRateRepository.saveAll(exchangeRates);
-        cache.updateRates(baseCurrencyCode, response.getRates());
+        LocalDate date = response.getDate();
+        if (date != null && date.equals(publicationDates.get(baseCurrencyCode)) && cache.hasRates(baseCurrencyCode)) {
+            log.debug("Rates for {} not republished since {}. Skipping write.", baseCurrencyCode, date);
+            return new BaseRefresh(null, date);
+        }
+        RatesSnapshot snapshot = cache.snapshot();
+        Map<String, BigDecimal> changed = snapshot.changedRates(baseCurrencyCode, rates);
+        Set<String> removed = snapshot.removedQuotes(baseCurrencyCode, rates);
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return new BaseRefresh(null, date);
+        }
+        exchangeRateBatchWriter.saveRates(baseCurrency.getId(), changed, removed, LocalDateTime.now());
+        return new BaseRefresh(rates, date);
     }
 
-    private ExchangeRateResponse fetchRatesFromApi(String currencyCode) {
-        try {
-            return exchangeRatesClient.getExchangeRates(currencyCode);
-        } catch (ResponseStatusException e) {
-            if (e.getStatusCode().is4xxClientError()) {
-                throw new CurrencyNotFoundException("Currency not found in external service: " + currencyCode);
-            }
-            throw new RuntimeException("External service error.");
+    private void recordPublicationDate(String baseCurrencyCode, LocalDate date) {
+        if (date != null) {
+            publicationDates.put(baseCurrencyCode, date);
         }
     }
 
-    private List<ExchangeRate> mapApiResponseToEntities(Currency baseCurrency, Map<String, BigDecimal> rates) {
-        return rates.entrySet().stream()
-                .map(entry -> ExchangeRate.builder()
-                        .currency(baseCurrency)
-                        .code(entry.getKey())
-                        .rate(entry.getValue())
-                        .timestamp(LocalDateTime.now())
-                        .build())
-                .toList();
+    /** Full row when anything changed, otherwise {@code null}, and the publication date. */
+    private record BaseRefresh(Map<String, BigDecimal> rates, LocalDate date) {
+        boolean changed() {
+            return rates != null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.dto.RefreshReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class RefreshTaskRunner {
+    private final Duration taskTimeout;
+    private final Duration deadline;
+    private final Semaphore permits;
+
+    public RefreshTaskRunner(@Value("${refresh.max-concurrency:8}") int maxConcurrency,
+                             @Value("${refresh.task-timeout:10s}") Duration taskTimeout,
+                             @Value("${refresh.deadline:60s}") Duration deadline) {
+        this.taskTimeout = taskTimeout;
+        this.deadline = deadline;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public <T> RefreshReport run(Collection<T> items, Function<T, String> keyMapper, Consumer<T> task) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + deadline.toNanos();
+        AtomicInteger succeeded = new AtomicInteger();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        Map<String, Future<?>> workers = new LinkedHashMap<>();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (T item : items) {
+                String key = keyMapper.apply(item);
+                workers.put(key, executor.submit(() -> {
+                    if (runWithPermit(executor, deadlineNanos, key, () -> task.accept(item), failures)) {
+                        succeeded.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            workers.forEach((key, worker) -> awaitWorker(key, worker, deadlineNanos, failures));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new RefreshReport(Duration.ofNanos(System.nanoTime() - startNanos), succeeded.get(), Map.copyOf(failures),
+                Set.of());
+    }
+
+    /** The task releases its own permit, so a timed-out task keeps its slot until it ends. */
+    private boolean runWithPermit(ExecutorService executor, long deadlineNanos,
+                                  String key, Runnable task, Map<String, String> failures) throws InterruptedException {
+        if (!permits.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            failures.put(key, "Deadline exceeded while waiting for a free slot.");
+            return false;
+        }
+        Future<?> call;
+        try {
+            call = executor.submit(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        try {
+            call.get(Math.min(taskTimeout.toNanos(), deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            failures.put(key, "Timed out.");
+        } catch (ExecutionException e) {
+            failures.put(key, String.valueOf(e.getCause().getMessage()));
+        }
+        return false;
+    }
+
+    private void awaitWorker(String key, Future<?> worker, long deadlineNanos, Map<String, String> failures) {
+        try {
+            worker.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            worker.cancel(true);
+            failures.putIfAbsent(key, "Deadline exceeded.");
+        } catch (ExecutionException e) {
+            failures.putIfAbsent(key, String.valueOf(e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.putIfAbsent(key, "Interrupted.");
+        }
+    }
+}
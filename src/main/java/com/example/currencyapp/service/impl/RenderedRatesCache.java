@@ -0,0 +1,73 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.ExchangeRatesUpdatedEvent;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.service.ExchangeRateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RenderedRatesCache {
+    private final ExchangeRateService exchangeRateService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final Map<String, RenderedRates> renderedByBase = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        for (String baseCurrencyCode : event.changedBases()) {
+            try {
+                get(event.snapshot(), baseCurrencyCode);
+            } catch (RuntimeException e) {
+                log.warn("Failed to render exchange rates for {}: {}", baseCurrencyCode, e.getMessage());
+            }
+        }
+    }
+
+    public RenderedRates get(RatesSnapshot snapshot, String baseCurrencyCode) {
+        String baseCodeUpperCase = baseCurrencyCode.toUpperCase();
+        long rowVersion = snapshot.rowVersion(baseCodeUpperCase);
+        RenderedRates rendered = renderedByBase.get(baseCodeUpperCase);
+        if (rendered != null && rendered.rowVersion() == rowVersion) {
+            return rendered;
+        }
+
+        RenderedRates fresh = render(snapshot, baseCodeUpperCase, rowVersion);
+        renderedByBase.merge(baseCodeUpperCase, fresh,
+                (existing, candidate) -> candidate.rowVersion() >= existing.rowVersion() ? candidate : existing);
+        return fresh;
+    }
+
+    private RenderedRates render(RatesSnapshot snapshot, String baseCurrencyCode, long rowVersion) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(exchangeRateService.getExchangeRates(snapshot, baseCurrencyCode));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            byte[] cbor = cborMapper.writeValueAsBytes(
+                    exchangeRateService.getCompactRates(snapshot, List.of(baseCurrencyCode), null));
+            log.debug("Rendered exchange rates for {} at row version {}.", baseCurrencyCode, rowVersion);
+            return new RenderedRates(rowVersion, json, compressed.toByteArray(), cbor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record RenderedRates(long rowVersion, byte[] json, byte[] gzip, byte[] cbor) {
+    }
+}
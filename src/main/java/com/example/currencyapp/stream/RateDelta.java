@@ -0,0 +1,21 @@
+package com.example.currencyapp.stream;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/** Changed and removed quotes of one base; a subscriber's first delta carries the full row. */
+public record RateDelta(String base, long version, Map<String, BigDecimal> rates, Set<String> removed) {
+
+    RateDelta mergedWith(RateDelta newer) {
+        Map<String, BigDecimal> merged = new HashMap<>(rates);
+        merged.keySet().removeAll(newer.removed());
+        merged.putAll(newer.rates());
+        Set<String> mergedRemoved = new HashSet<>(removed);
+        mergedRemoved.removeAll(newer.rates().keySet());
+        mergedRemoved.addAll(newer.removed());
+        return new RateDelta(base, newer.version(), Map.copyOf(merged), Set.copyOf(mergedRemoved));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.currencyapp.stream;
+
+import java.io.IOException;
+
+/** One subscriber's transport; {@link #ready()} returning false applies back-pressure. */
+public interface RateDeltaSink {
+
+    boolean ready();
+
+    void send(RateDelta delta) throws IOException;
+
+    void heartbeat() throws IOException;
+}
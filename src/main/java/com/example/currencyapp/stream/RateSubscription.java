@@ -0,0 +1,138 @@
+package com.example.currencyapp.stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/** One subscriber's pending deltas, merged to at most one per base. */
+@Slf4j
+public final class RateSubscription {
+    private final Set<String> bases;
+    private final RateDeltaSink sink;
+    private final Executor executor;
+    private final Runnable onCoalesced;
+    private final Consumer<RateSubscription> onClosed;
+    private final Map<String, RateDelta> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger wip = new AtomicInteger();
+    private boolean heartbeatPending;
+    private volatile boolean closed;
+
+    RateSubscription(Set<String> bases, RateDeltaSink sink, Executor executor, Runnable onCoalesced,
+                     Consumer<RateSubscription> onClosed) {
+        this.bases = bases;
+        this.sink = sink;
+        this.executor = executor;
+        this.onCoalesced = onCoalesced;
+        this.onClosed = onClosed;
+    }
+
+    boolean accepts(String base) {
+        return bases.isEmpty() || bases.contains(base);
+    }
+
+    void offer(RateDelta delta) {
+        if (closed || !accepts(delta.base())) {
+            return;
+        }
+        boolean coalesced;
+        lock.lock();
+        try {
+            RateDelta previous = pending.get(delta.base());
+            coalesced = previous != null;
+            pending.put(delta.base(), coalesced ? previous.mergedWith(delta) : delta);
+        } finally {
+            lock.unlock();
+        }
+        if (coalesced) {
+            onCoalesced.run();
+        }
+        drain();
+    }
+
+    void heartbeat() {
+        lock.lock();
+        try {
+            heartbeatPending = true;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    /** Schedules delivery of whatever is pending. */
+    public void drain() {
+        if (!closed && wip.getAndIncrement() == 0) {
+            executor.execute(this::deliver);
+        }
+    }
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClosed.accept(this);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void deliver() {
+        int missed = 1;
+        do {
+            try {
+                while (!closed && sink.ready()) {
+                    RateDelta next = poll();
+                    if (next != null) {
+                        sink.send(next);
+                    } else if (takeHeartbeat()) {
+                        sink.heartbeat();
+                    } else {
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Dropping rate stream subscriber: {}", e.getMessage());
+                close();
+                return;
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private RateDelta poll() {
+        lock.lock();
+        try {
+            Iterator<RateDelta> iterator = pending.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            RateDelta next = iterator.next();
+            iterator.remove();
+            heartbeatPending = false;
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean takeHeartbeat() {
+        lock.lock();
+        try {
+            boolean due = heartbeatPending;
+            heartbeatPending = false;
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.currencyapp.stream;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.ExchangeRatesUpdatedEvent;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.exception.SubscriberLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/** Fans cache updates out to subscribers as per-base deltas, in version order. */
+@Component
+@Slf4j
+public class RateUpdateHub {
+    private final ExchangeRateCache cache;
+    private final int maxSubscribers;
+    private final Executor executor;
+    private final Counter coalescedCounter;
+    private final Set<RateSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private RatesSnapshot published;
+
+    @Autowired
+    public RateUpdateHub(ExchangeRateCache cache, @Value("${stream.max-subscribers:10000}") int maxSubscribers,
+                         MeterRegistry meterRegistry) {
+        this(cache, maxSubscribers, meterRegistry,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-stream-", 0).factory()));
+    }
+
+    RateUpdateHub(ExchangeRateCache cache, int maxSubscribers, MeterRegistry meterRegistry, Executor executor) {
+        this.cache = cache;
+        this.maxSubscribers = maxSubscribers;
+        this.executor = executor;
+        this.published = cache.snapshot();
+        this.coalescedCounter = Counter.builder("exchange_rates.stream.coalesced")
+                .description("Rate deltas merged into a pending delta because the subscriber was behind")
+                .register(meterRegistry);
+        Gauge.builder("exchange_rates.stream.subscribers", subscriptions, Set::size)
+                .description("Open rate stream subscriptions")
+                .register(meterRegistry);
+    }
+
+    /** Subscribes to the given bases (all when empty), starting with their full rows. */
+    public RateSubscription subscribe(Collection<String> bases, RateDeltaSink sink) {
+        Set<String> baseCodes = bases == null ? Set.of() : bases.stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+        RateSubscription subscription = new RateSubscription(baseCodes, sink, executor,
+                coalescedCounter::increment, subscriptions::remove);
+        publishLock.lock();
+        try {
+            if (subscriptions.size() >= maxSubscribers) {
+                throw new SubscriberLimitExceededException("Too many rate stream subscribers. Try again later.");
+            }
+            advanceTo(cache.snapshot());
+            subscriptions.add(subscription);
+            RatesSnapshot current = published;
+            for (String base : current.matrix().baseCodes()) {
+                if (subscription.accepts(base)) {
+                    subscription.offer(new RateDelta(base, current.rowVersion(base), current.ratesFor(base), Set.of()));
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        return subscription;
+    }
+
+    @EventListener
+    public void onRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        publishLock.lock();
+        try {
+            advanceTo(event.snapshot());
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${stream.heartbeat-interval:30s}")
+    public void heartbeat() {
+        subscriptions.forEach(RateSubscription::heartbeat);
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        List.copyOf(subscriptions).forEach(RateSubscription::close);
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /** Must hold {@link #publishLock}. */
+    private void advanceTo(RatesSnapshot next) {
+        if (next.version() <= published.version()) {
+            return;
+        }
+        List<RateDelta> deltas = deltasBetween(published, next);
+        published = next;
+        for (RateSubscription subscription : subscriptions) {
+            deltas.forEach(subscription::offer);
+        }
+    }
+
+    private static List<RateDelta> deltasBetween(RatesSnapshot previous, RatesSnapshot next) {
+        List<RateDelta> deltas = new ArrayList<>();
+        for (String base : next.matrix().baseCodes()) {
+            if (next.rowVersion(base) == previous.rowVersion(base)) {
+                continue;
+            }
+            Map<String, BigDecimal> row = next.ratesFor(base);
+            Map<String, BigDecimal> changed = previous.changedRates(base, row);
+            Set<String> removed = previous.removedQuotes(base, row);
+            if (!changed.isEmpty() || !removed.isEmpty()) {
+                deltas.add(new RateDelta(base, next.rowVersion(base), Map.copyOf(changed), Set.copyOf(removed)));
+            }
+        }
+        return deltas;
+    }
+}
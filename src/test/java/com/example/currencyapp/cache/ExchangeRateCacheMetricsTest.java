@@ -0,0 +1,43 @@
+package com.example.currencyapp.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateCacheMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void metrics_reflectLookupsSizeAndRateAge() {
+        // Arrange
+        Instant publishedAt = Instant.parse("2024-01-01T00:00:00Z");
+        ExchangeRateCache cache = new ExchangeRateCache(Clock.fixed(publishedAt, ZoneOffset.UTC), event -> {
+        });
+        ExchangeRateCacheMetrics metrics = new ExchangeRateCacheMetrics(cache, meterRegistry,
+                Clock.fixed(publishedAt.plusSeconds(90), ZoneOffset.UTC));
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+
+        // Act
+        cache.rate("USD", "EUR");
+        cache.rate("EUR", "USD");
+        cache.freshness("GBP", Duration.ofMinutes(1), Duration.ofMinutes(2));
+        metrics.onRatesUpdated(new ExchangeRatesUpdatedEvent(cache.snapshot(), Set.of("USD")));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("exchange_rates.cache.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("exchange_rates.cache.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(1, meterRegistry.get("exchange_rates.cache.bases").gauge().value());
+        assertEquals(2, meterRegistry.get("exchange_rates.cache.currencies").gauge().value());
+        assertEquals(90, meterRegistry.get("exchange_rates.cache.rate_age").tag("base", "USD").gauge().value());
+    }
+}
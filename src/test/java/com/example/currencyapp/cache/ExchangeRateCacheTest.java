@@ -0,0 +1,177 @@
+package com.example.currencyapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateCacheTest {
+
+    private final ExchangeRateCache cache = new ExchangeRateCache();
+
+    @Test
+    void publish_swapsInNewVersionAndKeepsOldSnapshotIntact() {
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        RatesSnapshot before = cache.snapshot();
+
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.93")),
+                "EUR", Map.of("USD", new BigDecimal("1.07"))));
+        RatesSnapshot after = cache.snapshot();
+
+        assertEquals(1, before.version());
+        assertEquals(2, after.version());
+        assertEquals(new BigDecimal("0.92"), before.ratesFor("USD").get("EUR"));
+        assertNull(before.ratesFor("EUR"));
+        assertEquals(new BigDecimal("0.93"), after.ratesFor("USD").get("EUR"));
+        assertFalse(after.refreshedAt().isBefore(before.refreshedAt()));
+    }
+
+    @Test
+    void snapshot_isImmutable() {
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+
+        assertThrows(UnsupportedOperationException.class, () -> cache.getBaseCurrencies().remove("USD"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> cache.getRatesForCurrency("USD").put("GBP", BigDecimal.ONE));
+    }
+
+    @Test
+    void publish_emptyUpdateKeepsVersion() {
+        cache.publish(Map.of());
+
+        assertTrue(cache.isEmpty());
+        assertEquals(0, cache.snapshot().version());
+    }
+
+    @Test
+    void rate_readsFixedPointCellsByOrdinal() {
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92"), "JPY", new BigDecimal("151.123456789")),
+                "EUR", Map.of("USD", new BigDecimal("1.087"))));
+
+        RateMatrix matrix = cache.snapshot().matrix();
+        int usd = matrix.ordinalOf("USD");
+        int eur = matrix.ordinalOf("EUR");
+
+        assertEquals(920_000_000L, matrix.rate(usd, eur));
+        assertEquals(151_123_456_789L, cache.rate("USD", "JPY"));
+        assertEquals(RateMatrix.MISSING, cache.rate("EUR", "JPY"));
+        assertEquals(RateMatrix.MISSING, cache.rate("JPY", "USD"));
+        assertEquals(RateMatrix.MISSING, cache.rate("USD", "XXX"));
+        assertEquals(new BigDecimal("0.92"), RateMatrix.toDecimal(matrix.rate(usd, eur)));
+        assertEquals(List.of("EUR", "USD"), cache.getBaseCurrencies());
+    }
+
+    @Test
+    void publish_keepsOrdinalsStableAcrossVersions() {
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        int usd = cache.snapshot().matrix().ordinalOf("USD");
+
+        cache.updateRates("GBP", Map.of("AUD", new BigDecimal("1.9")));
+        RateMatrix matrix = cache.snapshot().matrix();
+
+        assertEquals(usd, matrix.ordinalOf("USD"));
+        assertEquals(920_000_000L, matrix.rate(usd, matrix.ordinalOf("EUR")));
+        assertEquals(Map.of("AUD", new BigDecimal("1.9")), cache.getRatesForCurrency("GBP"));
+    }
+
+    @Test
+    void freshness_followsSoftAndHardTtlPerBase() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        ExchangeRateCache timedCache = new ExchangeRateCache(clock, event -> {
+        });
+        Duration soft = Duration.ofMinutes(30);
+        Duration hard = Duration.ofHours(2);
+
+        assertEquals(Freshness.MISSING, timedCache.freshness("USD", soft, hard));
+
+        timedCache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        clock.advance(Duration.ofMinutes(20));
+        timedCache.updateRates("EUR", Map.of("USD", new BigDecimal("1.08")));
+        assertEquals(Freshness.FRESH, timedCache.freshness("USD", soft, hard));
+
+        clock.advance(Duration.ofMinutes(15));
+        assertEquals(Freshness.STALE, timedCache.freshness("USD", soft, hard));
+        assertEquals(Freshness.FRESH, timedCache.freshness("EUR", soft, hard));
+
+        clock.advance(Duration.ofHours(2));
+        assertEquals(Freshness.EXPIRED, timedCache.freshness("USD", soft, hard));
+        assertEquals(Instant.parse("2024-01-01T00:20:00Z"), timedCache.snapshot().refreshedAt("EUR"));
+    }
+
+    @Test
+    void markRevalidated_restartsTtlWithoutNewVersion() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        List<Object> events = new ArrayList<>();
+        ExchangeRateCache timedCache = new ExchangeRateCache(clock, events::add);
+        Duration soft = Duration.ofMinutes(30);
+        timedCache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        RatesSnapshot before = timedCache.snapshot();
+
+        clock.advance(Duration.ofMinutes(45));
+        timedCache.markRevalidated(Set.of("USD", "XXX"));
+        RatesSnapshot after = timedCache.snapshot();
+
+        assertEquals(Freshness.FRESH, timedCache.freshness("USD", soft, Duration.ofHours(2)));
+        assertEquals(before.version(), after.version());
+        assertEquals(before.rowVersion("USD"), after.rowVersion("USD"));
+        assertEquals(before.refreshedAt(), after.refreshedAt());
+        assertEquals(Instant.parse("2024-01-01T00:45:00Z"), after.refreshedAt("USD"));
+        assertEquals(before.modifiedAt("USD"), after.modifiedAt("USD"));
+        assertEquals(2, events.size());
+        assertInstanceOf(ExchangeRatesUpdatedEvent.class, events.get(0));
+        ExchangeRatesRevalidatedEvent revalidated = assertInstanceOf(ExchangeRatesRevalidatedEvent.class, events.get(1));
+        assertSame(after, revalidated.snapshot());
+        assertEquals(Set.of("USD", "XXX"), revalidated.bases());
+    }
+
+    @Test
+    void changedRates_returnsOnlyDifferingOrNewQuotes() {
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.79")));
+
+        Map<String, BigDecimal> changed = cache.snapshot().changedRates("USD", Map.of(
+                "EUR", new BigDecimal("0.920000"),
+                "GBP", new BigDecimal("0.80"),
+                "JPY", new BigDecimal("151.2")));
+
+        assertEquals(Map.of("GBP", new BigDecimal("0.80"), "JPY", new BigDecimal("151.2")), changed);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.currencyapp.cache;
+
+import com.example.currencyapp.repository.LatestRateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExchangeRateCacheWarmerTest {
+
+    private final LatestRateRepository latestRateRepository = mock(LatestRateRepository.class);
+    private final ExchangeRateCache cache = new ExchangeRateCache();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExchangeRateCacheWarmer warmer = new ExchangeRateCacheWarmer(latestRateRepository, cache, meterRegistry);
+
+    @Test
+    void warmUp_loadsAllBasesWithOneQuery() {
+        when(latestRateRepository.findAllRatesByBaseCode()).thenReturn(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92")),
+                "EUR", Map.of("USD", new BigDecimal("1.087"))));
+
+        warmer.warmUp();
+
+        assertEquals(List.of("EUR", "USD"), cache.getBaseCurrencies());
+        verify(latestRateRepository, times(1)).findAllRatesByBaseCode();
+        assertEquals(1, meterRegistry.get("exchange_rates.cache.warmup").timer().count());
+    }
+
+    @Test
+    void warmUp_restoredCacheRepublishesOnlyChangedBases() {
+        // Arrange
+        ExchangeRateCacheWarmer inlineWarmer =
+                new ExchangeRateCacheWarmer(latestRateRepository, cache, meterRegistry, Runnable::run);
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92")),
+                "EUR", Map.of("USD", new BigDecimal("1.087"))));
+        when(latestRateRepository.findAllRatesByBaseCode()).thenReturn(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.920")),
+                "EUR", Map.of("USD", new BigDecimal("1.09"))));
+
+        // Act
+        inlineWarmer.warmUp();
+
+        // Assert
+        assertEquals(1, cache.snapshot().rowVersion("USD"));
+        assertEquals(2, cache.snapshot().rowVersion("EUR"));
+        assertEquals(0, new BigDecimal("1.09").compareTo(cache.snapshot().ratesFor("EUR").get("USD")));
+        assertEquals(1, meterRegistry.get("exchange_rates.cache.reconcile").timer().count());
+        assertEquals(0, meterRegistry.get("exchange_rates.cache.warmup").timer().count());
+    }
+
+    @Test
+    void warmUp_databaseFailureLeavesCacheCold() {
+        when(latestRateRepository.findAllRatesByBaseCode()).thenThrow(new IllegalStateException("Connection refused"));
+
+        warmer.warmUp();
+
+        assertTrue(cache.isEmpty());
+        assertEquals(1, meterRegistry.get("exchange_rates.cache.warmup").timer().count());
+    }
+}
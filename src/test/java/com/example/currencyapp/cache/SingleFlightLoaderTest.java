@@ -0,0 +1,81 @@
+package com.example.currencyapp.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightLoaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightLoader loader = new SingleFlightLoader(meterRegistry);
+
+    @Test
+    void load_concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> loader.load("rates", "USD", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "loaded";
+                })));
+            }
+            while (coalesced() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("exchange_rates.single_flight.loads").tag("role", "leader").counter().count());
+        assertEquals(0, loader.inFlightCount());
+    }
+
+    @Test
+    void load_failureIsSharedAndNotCached() {
+        assertThrows(IllegalStateException.class, () -> loader.load("rates", "USD", () -> {
+            throw new IllegalStateException("DB down");
+        }));
+
+        assertEquals("recovered", loader.load("rates", "USD", () -> "recovered"));
+    }
+
+    @Test
+    void load_differentKeysDoNotCoalesce() {
+        assertEquals("USD", loader.load("rates", "USD", () -> "USD"));
+        assertEquals("EUR", loader.load("rates", "EUR", () -> "EUR"));
+        assertEquals("USD", loader.load("add-currency", "USD", () -> "USD"));
+
+        assertEquals(3, meterRegistry.get("exchange_rates.single_flight.loads").tag("role", "leader").counters()
+                .stream().mapToDouble(counter -> counter.count()).sum());
+    }
+
+    private double coalesced() {
+        var counter = meterRegistry.find("exchange_rates.single_flight.loads").tag("role", "coalesced").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.currencyapp.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void onRatesRevalidated_writesNewRefreshTimes() throws Exception {
+        // Arrange
+        Instant publishedAt = Instant.parse("2024-01-01T00:00:00Z");
+        Instant revalidatedAt = publishedAt.plus(Duration.ofMinutes(45));
+        Path path = directory.resolve("rates.snapshot");
+        ExchangeRateCache cache = new ExchangeRateCache(Clock.fixed(publishedAt, ZoneOffset.UTC), event -> { });
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        SnapshotFile.write(cache.snapshot(), path);
+        ExchangeRateCache restarted = new ExchangeRateCache(Clock.fixed(revalidatedAt, ZoneOffset.UTC), event -> { });
+        SnapshotFileStore store = new SnapshotFileStore(restarted, path);
+        store.restore();
+
+        // Act
+        restarted.markRevalidated(Set.of("USD"));
+        store.onRatesRevalidated(new ExchangeRatesRevalidatedEvent(restarted.snapshot(), Set.of("USD")));
+        store.shutdown();
+
+        // Assert
+        RatesSnapshot written = SnapshotFile.read(path);
+        assertTrue(store.isRestored());
+        assertEquals(revalidatedAt, written.refreshedAt("USD"));
+        assertEquals(publishedAt, written.modifiedAt("USD"));
+        assertEquals(cache.snapshot().version(), written.version());
+    }
+
+    @Test
+    void restore_rejectedByCache_doesNotSuppressLaterWrites() throws IOException, InterruptedException {
+        // Arrange
+        Path path = directory.resolve("rates.snapshot");
+        ExchangeRateCache previousRun = new ExchangeRateCache();
+        previousRun.publish(Map.of("USD", Map.of("EUR", new BigDecimal("0.92"))));
+        previousRun.publish(Map.of("EUR", Map.of("USD", new BigDecimal("1.087"))));
+        SnapshotFile.write(previousRun.snapshot(), path);
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.publish(Map.of("GBP", Map.of("USD", new BigDecimal("1.27"))));
+        SnapshotFileStore store = new SnapshotFileStore(cache, path);
+
+        // Act
+        store.restore();
+        store.onRatesUpdated(new ExchangeRatesUpdatedEvent(cache.snapshot(), Set.of("GBP")));
+        store.shutdown();
+
+        // Assert
+        RatesSnapshot written = SnapshotFile.read(path);
+        assertFalse(store.isRestored());
+        assertEquals(Set.of("GBP"), Set.copyOf(written.matrix().baseCodes()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.currencyapp.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_thenRead_restoresSnapshot() throws IOException {
+        // Arrange
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.publish(Map.of("USD", Map.of("EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.79"))));
+        cache.publish(Map.of("EUR", Map.of("USD", new BigDecimal("1.087"))));
+        RatesSnapshot snapshot = cache.snapshot();
+        Path path = directory.resolve("rates.snapshot");
+
+        // Act
+        SnapshotFile.write(snapshot, path);
+        RatesSnapshot restored = SnapshotFile.read(path);
+
+        // Assert
+        assertEquals(snapshot.version(), restored.version());
+        assertEquals(snapshot.refreshedAt(), restored.refreshedAt());
+        assertEquals(snapshot.matrix().index().codes(), restored.matrix().index().codes());
+        assertEquals(snapshot.matrix().baseCodes(), restored.matrix().baseCodes());
+        assertEquals(1, restored.rowVersion("USD"));
+        assertEquals(2, restored.rowVersion("EUR"));
+        assertEquals(snapshot.refreshedAt("USD"), restored.refreshedAt("USD"));
+        assertEquals(snapshot.ratesFor("USD"), restored.ratesFor("USD"));
+        assertEquals(snapshot.ratesFor("EUR"), restored.ratesFor("EUR"));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void read_corruptedFileIsRejected() throws IOException {
+        // Arrange
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.publish(Map.of("USD", Map.of("EUR", new BigDecimal("0.92"))));
+        Path path = directory.resolve("rates.snapshot");
+        SnapshotFile.write(cache.snapshot(), path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> SnapshotFile.read(path));
+    }
+}
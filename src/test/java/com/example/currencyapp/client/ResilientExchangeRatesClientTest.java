@@ -0,0 +1,159 @@
+package com.example.currencyapp.client;
+
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.ExternalServiceException;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ResilientExchangeRatesClientTest.ClientConfig.class, properties = {
+        "spring.cloud.openfeign.client.config.exchangeRatesClient.read-timeout=300",
+        "frankfurter.resilience.retry.max-attempts=3",
+        "frankfurter.resilience.retry.initial-backoff=10ms",
+        "frankfurter.resilience.circuit-breaker.sliding-window-size=4",
+        "frankfurter.resilience.circuit-breaker.minimum-number-of-calls=4",
+        "frankfurter.resilience.bulkhead.max-concurrent-calls=1"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ResilientExchangeRatesClientTest {
+    private static final String RATES = "{\"base\":\"USD\",\"rates\":{\"EUR\":0.92}}";
+    private static final WireMockServer wireMock = new WireMockServer(wireMockConfig().dynamicPort());
+
+    @Autowired
+    private ResilientExchangeRatesClient client;
+
+    @BeforeAll
+    static void startServer() {
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        wireMock.stop();
+    }
+
+    @DynamicPropertySource
+    static void frankfurterUrl(DynamicPropertyRegistry registry) {
+        registry.add("frankfurter.url", wireMock::baseUrl);
+    }
+
+    @BeforeEach
+    void resetStubs() {
+        wireMock.resetAll();
+    }
+
+    @Test
+    void getExchangeRates_retriesTransientFailure() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).inScenario("flaky")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(serviceUnavailable())
+                .willSetStateTo("recovered"));
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).inScenario("flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(okJson(RATES)));
+
+        // Act
+        ExchangeRateResponse response = client.getExchangeRates("USD");
+
+        // Assert
+        assertEquals(new BigDecimal("0.92"), response.getRates().get("EUR"));
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/latest")).withQueryParam("base", equalTo("USD")));
+    }
+
+    @Test
+    void getExchangeRates_readTimeoutBecomesExternalServiceError() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).willReturn(okJson(RATES).withFixedDelay(1000)));
+
+        // Act & Assert
+        assertThrows(ExternalServiceException.class, () -> client.getExchangeRates("USD"));
+        wireMock.verify(3, getRequestedFor(urlPathEqualTo("/latest")));
+    }
+
+    @Test
+    void getExchangeRates_clientErrorIsNotRetried() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).willReturn(notFound()));
+
+        // Act & Assert
+        assertThrows(CurrencyNotFoundException.class, () -> client.getExchangeRates("XXX"));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/latest")));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitBreakerState());
+    }
+
+    @Test
+    void getExchangeRates_openCircuitFailsFast() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).willReturn(serverError()));
+        assertThrows(ExternalServiceException.class, () -> client.getExchangeRates("USD"));
+        assertThrows(ExternalServiceException.class, () -> client.getExchangeRates("USD"));
+        int requestsBeforeOpen = wireMock.getAllServeEvents().size();
+
+        // Act
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+                () -> client.getExchangeRates("USD"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitBreakerState());
+        assertEquals("External service is unavailable.", exception.getMessage());
+        assertEquals(requestsBeforeOpen, wireMock.getAllServeEvents().size());
+    }
+
+    @Test
+    void getExchangeRates_bulkheadRejectsExcessConcurrentCalls() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).willReturn(okJson(RATES).withFixedDelay(200)));
+        CompletableFuture<ExchangeRateResponse> slowCall = CompletableFuture.supplyAsync(() -> client.getExchangeRates("USD"));
+        wireMockReceivedRequest();
+
+        // Act
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+                () -> client.getExchangeRates("EUR"));
+
+        // Assert
+        assertEquals("Too many concurrent calls to the external service.", exception.getMessage());
+        assertNotNull(slowCall.join());
+    }
+
+    private static void wireMockReceivedRequest() {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (wireMock.getAllServeEvents().isEmpty() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            FeignAutoConfiguration.class})
+    @EnableFeignClients(clients = ExchangeRatesClient.class)
+    @EnableConfigurationProperties(ExchangeRatesClientProperties.class)
+    @Import({ExchangeRatesResilience.class, ResilientExchangeRatesClient.class})
+    static class ClientConfig {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.currencyapp.cluster;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.repository.LatestRateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ClusterCacheSyncIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final List<ClusterCacheSync> nodes = new ArrayList<>();
+    private final List<LeaderElection> elections = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS latest_rates, currencies");
+        jdbcTemplate.execute("CREATE TABLE currencies (id BIGINT PRIMARY KEY, code VARCHAR(10) NOT NULL)");
+        jdbcTemplate.execute("""
+                CREATE TABLE latest_rates (
+                    currency_id BIGINT NOT NULL REFERENCES currencies (id),
+                    code VARCHAR(10) NOT NULL,
+                    rate DECIMAL(22, 9) NOT NULL,
+                    PRIMARY KEY (currency_id, code)
+                )""");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterCacheSync::stop);
+        elections.forEach(LeaderElection::release);
+    }
+
+    @Test
+    void announce_peerReloadsAnnouncedBasesFromLatestRates() throws InterruptedException {
+        // Arrange
+        ExchangeRateCache leaderCache = new ExchangeRateCache();
+        ExchangeRateCache followerCache = new ExchangeRateCache();
+        ClusterCacheSync leader = startNode(leaderCache);
+        startNode(followerCache);
+        jdbcTemplate.update("INSERT INTO currencies (id, code) VALUES (1, 'USD')");
+        jdbcTemplate.update("INSERT INTO latest_rates (currency_id, code, rate) VALUES (1, 'EUR', 0.92)");
+
+        // Act
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!followerCache.hasRates("USD") && System.nanoTime() < deadline) {
+            leader.announce(Set.of("USD"));
+            Thread.sleep(200);
+        }
+
+        // Assert
+        assertEquals(0, new BigDecimal("0.92").compareTo(followerCache.getRatesForCurrency("USD").get("EUR")));
+        assertFalse(leaderCache.hasRates("USD"));
+    }
+
+    @Test
+    void isLeader_onlyOneNodeHoldsTheLockUntilItReleasesIt() {
+        // Arrange
+        LeaderElection first = election();
+        LeaderElection second = election();
+
+        // Act & Assert
+        assertTrue(first.isLeader());
+        assertFalse(second.isLeader());
+        first.release();
+        assertTrue(second.isLeader());
+    }
+
+    private ClusterCacheSync startNode(ExchangeRateCache cache) {
+        ClusterCacheSync node = new ClusterCacheSync(connections(), jdbcTemplate,
+                new LatestRateRepository(jdbcTemplate, new SimpleMeterRegistry()), cache, properties());
+        node.start();
+        nodes.add(node);
+        return node;
+    }
+
+    private LeaderElection election() {
+        LeaderElection election = new LeaderElection(connections(), properties());
+        elections.add(election);
+        return election;
+    }
+
+    private static DedicatedConnections connections() {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(postgres.getJdbcUrl());
+        dataSourceProperties.setUsername(postgres.getUsername());
+        dataSourceProperties.setPassword(postgres.getPassword());
+        return new DedicatedConnections(dataSourceProperties);
+    }
+
+    private static ClusterProperties properties() {
+        return new ClusterProperties(true, 738291L, "exchange_rates_changed",
+                Duration.ofMillis(100), Duration.ofMillis(100), Duration.ofSeconds(5));
+    }
+}
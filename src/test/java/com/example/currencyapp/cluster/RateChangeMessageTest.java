@@ -0,0 +1,37 @@
+package com.example.currencyapp.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateChangeMessageTest {
+
+    @Test
+    void encode_roundTripsNodeAndBases() {
+        RateChangeMessage message = new RateChangeMessage("node-1", Set.of("USD", "GBP"));
+
+        RateChangeMessage parsed = RateChangeMessage.parse(message.encode());
+
+        assertEquals(message, parsed);
+        assertFalse(parsed.reloadAll());
+    }
+
+    @Test
+    void encode_oversizedPayloadAsksForFullReload() {
+        Set<String> bases = IntStream.range(0, 3000).mapToObj(i -> "C" + i).collect(Collectors.toSet());
+
+        RateChangeMessage parsed = RateChangeMessage.parse(new RateChangeMessage("node-1", bases).encode());
+
+        assertEquals("node-1", parsed.nodeId());
+        assertTrue(parsed.reloadAll());
+    }
+
+    @Test
+    void parse_rejectsPayloadWithoutNode() {
+        assertThrows(IllegalArgumentException.class, () -> RateChangeMessage.parse("USD,GBP"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.currencyapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.reactive.ReactiveWebServerFactoryAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveConfigTest {
+
+    @Test
+    void reactiveModeRunsOnNettyAlthoughTomcatIsOnTheClasspath() {
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveWebServerFactoryAutoConfiguration.class))
+                .withUserConfiguration(ReactiveConfig.class)
+                .run(context -> assertInstanceOf(NettyReactiveWebServerFactory.class,
+                        context.getBean(ReactiveWebServerFactory.class)));
+    }
+}
@@ -1,22 +1,39 @@
 package com.example.currencyapp.controller;
 
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.ConversionBatchResponse;
+import com.example.currencyapp.dto.ConversionDto;
 import com.example.currencyapp.dto.CurrencyDto;
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
 import com.example.currencyapp.dto.ExchangeRateDto;
 import com.example.currencyapp.exception.CurrencyAlreadyExistsException;
 import com.example.currencyapp.exception.CurrencyNotFoundException;
 import com.example.currencyapp.exception.ExternalServiceException;
+import com.example.currencyapp.exception.InvalidRequestException;
+import com.example.currencyapp.service.ConversionService;
 import com.example.currencyapp.service.CurrencyService;
+import com.example.currencyapp.service.ExchangeRateHistoryService;
 import com.example.currencyapp.service.ExchangeRateService;
+import com.example.currencyapp.service.impl.RenderedRatesCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,8 +44,16 @@ class CurrencyControllerTest {
     private CurrencyService currencyService;
     @MockBean
     private ExchangeRateService exchangeRateService;
+    @MockBean
+    private ConversionService conversionService;
+    @MockBean
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+    @MockBean
+    private RenderedRatesCache renderedRatesCache;
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     @Test
@@ -39,11 +64,46 @@ class CurrencyControllerTest {
         when(currencyService.getAllCurrencies()).thenReturn(currencies);
         mockMvc.perform(get("/api/v1/currencies"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.JSON)))
                 .andExpect(jsonPath("$[0].code").value("USD"))
                 .andExpect(jsonPath("$[1].code").value("EUR"));
         verify(currencyService, times(1)).getAllCurrencies();
     }
 
+    @Test
+    void getAllCurrencies_notModified() throws Exception {
+        List<CurrencyDto> currencies = List.of(new CurrencyDto("USD"));
+        when(currencyService.getAllCurrencies()).thenReturn(currencies);
+
+        mockMvc.perform(get("/api/v1/currencies")
+                        .header("If-None-Match", RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.JSON)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllCurrencies_cborNegotiatedUsesCborEtag() throws Exception {
+        List<CurrencyDto> currencies = List.of(new CurrencyDto("USD"));
+        when(currencyService.getAllCurrencies()).thenReturn(currencies);
+
+        mockMvc.perform(get("/api/v1/currencies").header("Accept", "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.CBOR)));
+    }
+
+    @Test
+    void getAllCurrencies_cborWithZeroQualityIsNotSelected() throws Exception {
+        List<CurrencyDto> currencies = List.of(new CurrencyDto("USD"));
+        when(currencyService.getAllCurrencies()).thenReturn(currencies);
+
+        mockMvc.perform(get("/api/v1/currencies").header("Accept", "application/cbor;q=0, application/json"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(header().string("ETag", RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.JSON)))
+                .andExpect(jsonPath("$[0].code").value("USD"));
+    }
+
     @Test
     void getAllCurrencies_noCurrenciesFound() throws Exception {
         when(currencyService.getAllCurrencies()).thenThrow(new CurrencyNotFoundException("No currencies available."));
@@ -94,39 +154,285 @@ class CurrencyControllerTest {
         List<ExchangeRateDto> rateDtos = List.of(
                 new ExchangeRateDto("USD", "EUR", new BigDecimal("0.94859")),
                 new ExchangeRateDto("USD", "PLN", new BigDecimal("4.0884")));
-        when(exchangeRateService.getExchangeRates("USD")).thenReturn(rateDtos);
+        RatesSnapshot snapshot = snapshotOf("USD");
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(renderedRatesCache.get(snapshot, "USD")).thenReturn(
+                new RenderedRatesCache.RenderedRates(1, objectMapper.writeValueAsBytes(rateDtos), new byte[0], new byte[0]));
         mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etagOf(snapshot)))
+                .andExpect(header().exists("Last-Modified"))
                 .andExpect(jsonPath("$[0].baseCurrencyCode").value("USD"))
                 .andExpect(jsonPath("$[0].currencyCode").value("EUR"))
                 .andExpect(jsonPath("$[0].rate").value("0.94859"))
                 .andExpect(jsonPath("$[1].baseCurrencyCode").value("USD"))
                 .andExpect(jsonPath("$[1].currencyCode").value("PLN"))
                 .andExpect(jsonPath("$[1].rate").value("4.0884"));
-        verify(exchangeRateService, times(1)).getExchangeRates("USD");
+        verify(renderedRatesCache, times(1)).get(snapshot, "USD");
+    }
+
+    @Test
+    void getBulkRates() throws Exception {
+        RatesSnapshot snapshot = snapshotOf("USD", "EUR");
+        List<String> bases = List.of("USD", "EUR");
+        List<String> quotes = List.of("PLN");
+        when(exchangeRateService.getCachedRatesSnapshot(bases)).thenReturn(snapshot);
+        when(exchangeRateService.getRates(snapshot, bases, quotes)).thenReturn(Map.of(
+                "USD", Map.of("PLN", new BigDecimal("4.0884")),
+                "EUR", Map.of("PLN", new BigDecimal("4.3121"))));
+
+        mockMvc.perform(get("/api/v1/currencies/rates").param("bases", "USD,EUR").param("quotes", "PLN"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag",
+                        RatesResponseHeaders.bulkEtag(snapshot, bases, quotes, RatesResponseHeaders.JSON)))
+                .andExpect(jsonPath("$.USD.PLN").value("4.0884"))
+                .andExpect(jsonPath("$.EUR.PLN").value("4.3121"));
+    }
+
+    @Test
+    void getExchangeRateByCode_cborNegotiated() throws Exception {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        byte[] cbor = {(byte) 0xbf, (byte) 0xff};
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(renderedRatesCache.get(snapshot, "USD")).thenReturn(
+                new RenderedRatesCache.RenderedRates(1, new byte[0], new byte[0], cbor));
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD")
+                        .header("Accept", "application/cbor")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"USD-1-" + Long.toHexString(snapshot.rowHash("USD")) + "-cbor\""))
+                .andExpect(content().bytes(cbor));
+    }
+
+    @Test
+    void getBulkRates_unknownBase() throws Exception {
+        when(exchangeRateService.getCachedRatesSnapshot(List.of("XXX")))
+                .thenThrow(new CurrencyNotFoundException("Rates for XXX not found."));
+
+        mockMvc.perform(get("/api/v1/currencies/rates").param("bases", "XXX"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Rates for XXX not found."));
+    }
+
+    @Test
+    void getExchangeRateByCode_gzipEncoded() throws Exception {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        byte[] compressed = {31, -117, 8, 0};
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(renderedRatesCache.get(snapshot, "USD")).thenReturn(
+                new RenderedRatesCache.RenderedRates(1, new byte[0], compressed, new byte[0]));
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andExpect(content().bytes(compressed));
+    }
+
+    @Test
+    void getExchangeRateByCode_gzipRefusedByQualityZero() throws Exception {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        byte[] json = "[]".getBytes();
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(renderedRatesCache.get(snapshot, "USD")).thenReturn(
+                new RenderedRatesCache.RenderedRates(1, json, new byte[]{31, -117, 8, 0}, new byte[0]));
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD")
+                        .header("Accept-Encoding", "gzip;q=0, x-gzip-foo, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", etagOf(snapshot)))
+                .andExpect(content().bytes(json));
+    }
+
+    @Test
+    void getBulkRates_lastModifiedFollowsNewestSelectedRow() throws Exception {
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.updateRates("USD", Map.of("PLN", new BigDecimal("4.0884")));
+        cache.updateRates("EUR", Map.of("PLN", new BigDecimal("4.3121")));
+        RatesSnapshot snapshot = cache.snapshot();
+        List<String> bases = List.of("USD");
+        when(exchangeRateService.getCachedRatesSnapshot(bases)).thenReturn(snapshot);
+        when(exchangeRateService.getRates(snapshot, bases, null)).thenReturn(Map.of(
+                "USD", Map.of("PLN", new BigDecimal("4.0884"))));
+
+        mockMvc.perform(get("/api/v1/currencies/rates").param("bases", "USD"))
+                .andExpect(status().isOk())
+                .andExpect(header().dateValue("Last-Modified", snapshot.modifiedAt("USD").toEpochMilli() / 1000 * 1000));
+    }
+
+    @Test
+    void getExchangeRateByCode_notModified() throws Exception {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(snapshot);
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD")
+                        .header("If-None-Match", etagOf(snapshot)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etagOf(snapshot)));
+        verifyNoInteractions(renderedRatesCache);
+    }
+
+    @Test
+    void getExchangeRateByCode_otherBaseRefreshKeepsEtag() throws Exception {
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.updateRates("USD", Map.of("PLN", new BigDecimal("4.0884")));
+        cache.updateRates("EUR", Map.of("PLN", new BigDecimal("4.3121")));
+        String etag = etagOf(cache.snapshot());
+        cache.updateRates("EUR", Map.of("PLN", new BigDecimal("4.3150")));
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(cache.snapshot());
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(renderedRatesCache);
     }
 
     @Test
     void getExchangeRateByCode_currencyNotFound() throws Exception {
-        when(exchangeRateService.getExchangeRates("USD"))
+        when(exchangeRateService.getRatesSnapshot("USD"))
                 .thenThrow(new CurrencyNotFoundException("Currency not found: USD"));
 
         mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Currency not found: USD"));
 
-        verify(exchangeRateService, times(1)).getExchangeRates("USD");
+        verify(exchangeRateService, times(1)).getRatesSnapshot("USD");
     }
 
     @Test
     void getExchangeRateByCode_internalServerError() throws Exception {
-        when(exchangeRateService.getExchangeRates("USD"))
+        when(exchangeRateService.getRatesSnapshot("USD"))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD"))
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().string("An unexpected error occurred."));
 
-        verify(exchangeRateService, times(1)).getExchangeRates("USD");
+        verify(exchangeRateService, times(1)).getRatesSnapshot("USD");
+    }
+
+    @Test
+    void convert() throws Exception {
+        when(conversionService.convert("USD", "PLN", new BigDecimal("12.50"))).thenReturn(new ConversionDto(
+                "USD", "PLN", new BigDecimal("12.50"), new BigDecimal("4.0884"), new BigDecimal("51.1050")));
+
+        mockMvc.perform(get("/api/v1/currencies/convert")
+                        .param("from", "USD")
+                        .param("to", "PLN")
+                        .param("amount", "12.50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rate").value("4.0884"))
+                .andExpect(jsonPath("$.result").value("51.105"));
+    }
+
+    @Test
+    void convert_invalidRequest() throws Exception {
+        when(conversionService.convert("USD", "PLN", BigDecimal.ONE))
+                .thenThrow(new InvalidRequestException("Amount is required."));
+
+        mockMvc.perform(get("/api/v1/currencies/convert")
+                        .param("from", "USD")
+                        .param("to", "PLN")
+                        .param("amount", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Amount is required."));
+    }
+
+    @Test
+    void convert_malformedOrMissingParametersAreBadRequests() throws Exception {
+        mockMvc.perform(get("/api/v1/currencies/convert")
+                        .param("from", "USD")
+                        .param("to", "PLN")
+                        .param("amount", "twelve"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Parameter amount is invalid."));
+        mockMvc.perform(get("/api/v1/currencies/convert")
+                        .param("from", "USD")
+                        .param("to", "PLN"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Parameter amount is required."));
+        verifyNoInteractions(conversionService);
+    }
+
+    @Test
+    void convertAll() throws Exception {
+        when(conversionService.convertAll(any())).thenReturn(new ConversionBatchResponse(
+                "USD", "EUR", new BigDecimal("0.92"), List.of(new BigDecimal("0.9200"), new BigDecimal("9.6600"))));
+
+        mockMvc.perform(post("/api/v1/currencies/convert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\":\"USD\",\"to\":\"EUR\",\"amounts\":[1,10.5]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rate").value("0.92"))
+                .andExpect(jsonPath("$.results.length()").value(2));
+    }
+
+    @Test
+    void getExchangeRateByCode_asOfInstant() throws Exception {
+        Instant at = Instant.parse("2024-03-01T12:00:00Z");
+        when(exchangeRateHistoryService.getExchangeRatesAt("USD", at))
+                .thenReturn(List.of(new ExchangeRateDto("USD", "EUR", new BigDecimal("0.9221"))));
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/rates", "USD").param("at", "2024-03-01T12:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].currencyCode").value("EUR"))
+                .andExpect(jsonPath("$[0].rate").value("0.9221"));
+        verify(exchangeRateService, never()).getRatesSnapshot(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getExchangeRateHistory_streamsRows() throws Exception {
+        Instant from = Instant.parse("2024-03-01T00:00:00Z");
+        Instant to = Instant.parse("2024-04-01T00:00:00Z");
+        doAnswer(invocation -> {
+            Consumer<ExchangeRateHistoryDto> consumer = invocation.getArgument(3);
+            consumer.accept(new ExchangeRateHistoryDto("USD", "EUR", new BigDecimal("0.9221"),
+                    LocalDateTime.parse("2024-03-01T10:00:00")));
+            consumer.accept(new ExchangeRateHistoryDto("USD", "EUR", new BigDecimal("0.9230"),
+                    LocalDateTime.parse("2024-03-01T11:00:00")));
+            return null;
+        }).when(exchangeRateHistoryService).streamHistory(eq("USD"), eq(from), eq(to), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/currencies/{currencyCode}/history", "USD")
+                        .param("from", "2024-03-01T00:00:00Z")
+                        .param("to", "2024-04-01T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].rate").value("0.923"))
+                .andExpect(jsonPath("$[1].timestamp").value("2024-03-01T11:00:00"));
+    }
+
+    @Test
+    void getExchangeRateHistory_invalidRange() throws Exception {
+        doThrow(new InvalidRequestException("Parameter 'from' must be before 'to'."))
+                .when(exchangeRateHistoryService).validateHistoryRequest(eq("USD"), any(), any());
+
+        mockMvc.perform(get("/api/v1/currencies/{currencyCode}/history", "USD")
+                        .param("from", "2024-04-01T00:00:00Z")
+                        .param("to", "2024-03-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+        verify(exchangeRateHistoryService, never()).streamHistory(anyString(), any(), any(), any());
+    }
+
+    private static RatesSnapshot snapshotOf(String... bases) {
+        ExchangeRateCache cache = new ExchangeRateCache();
+        for (String base : bases) {
+            cache.updateRates(base, Map.of("PLN", new BigDecimal("4.0884")));
+        }
+        return cache.snapshot();
+    }
+
+    private static String etagOf(RatesSnapshot snapshot) {
+        return RatesResponseHeaders.baseEtag(snapshot, "USD", RatesResponseHeaders.JSON);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package com.example.currencyapp.controller;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.CurrencyDto;
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.provider.FrankfurterWebClientRateProvider;
+import com.example.currencyapp.service.ConversionService;
+import com.example.currencyapp.service.CurrencyService;
+import com.example.currencyapp.service.ExchangeRateHistoryService;
+import com.example.currencyapp.service.ExchangeRateService;
+import com.example.currencyapp.service.impl.RenderedRatesCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveCurrencyController.class)
+class ReactiveCurrencyControllerTest {
+    @MockBean
+    private CurrencyService currencyService;
+    @MockBean
+    private ExchangeRateService exchangeRateService;
+    @MockBean
+    private ConversionService conversionService;
+    @MockBean
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+    @MockBean
+    private RenderedRatesCache renderedRatesCache;
+    @MockBean
+    private FrankfurterWebClientRateProvider webClientRateProvider;
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ReactiveCurrencyController controller;
+
+    @TestConfiguration
+    static class OffloadConfig {
+        @Bean(destroyMethod = "dispose")
+        Scheduler offloadScheduler() {
+            return Schedulers.newBoundedElastic(2, 10, "offload");
+        }
+    }
+
+    @Test
+    void getExchangeRateByCode_servedFromCacheWithoutOffload() {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        when(exchangeRateService.findCachedSnapshot("USD")).thenReturn(Optional.of(snapshot));
+        when(renderedRatesCache.get(snapshot, "USD")).thenReturn(new RenderedRatesCache.RenderedRates(1,
+                "[{\"currencyCode\":\"EUR\"}]".getBytes(StandardCharsets.UTF_8), new byte[0], new byte[0]));
+
+        webTestClient.get().uri("/api/v1/currencies/{currencyCode}/rates", "USD")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", RatesResponseHeaders.baseEtag(snapshot, "USD", RatesResponseHeaders.JSON))
+                .expectBody().jsonPath("$[0].currencyCode").isEqualTo("EUR");
+        verify(exchangeRateService, never()).getRatesSnapshot(anyString());
+    }
+
+    @Test
+    void addCurrency_fetchesRatesWithWebClientAndOffloadsOnlyTheInsert() {
+        Map<String, BigDecimal> rates = Map.of("USD", new BigDecimal("0.25"));
+        AtomicReference<String> saveThread = new AtomicReference<>();
+        when(webClientRateProvider.fetchRatesAsync("PLN")).thenReturn(Mono.just(new ExchangeRateResponse("PLN", rates)));
+        doAnswer(invocation -> {
+            saveThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(currencyService).addCurrency("PLN", rates);
+
+        webTestClient.post().uri("/api/v1/currencies?currencyCode=pln")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class).isEqualTo("Currency PLN successfully added.");
+        assertTrue(saveThread.get().startsWith("offload"), saveThread.get());
+        verify(currencyService, never()).addCurrency("PLN");
+    }
+
+    @Test
+    void convert_malformedAmountIsBadRequest() {
+        webTestClient.get().uri("/api/v1/currencies/convert?from=USD&to=PLN&amount=twelve")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(conversionService);
+    }
+
+    @Test
+    void getExchangeRateByCode_coldLoadRunsOnOffloadScheduler() {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        AtomicReference<String> loadThread = new AtomicReference<>();
+        when(exchangeRateService.findCachedSnapshot("USD")).thenReturn(Optional.empty());
+        when(exchangeRateService.getRatesSnapshot("USD")).thenAnswer(invocation -> {
+            loadThread.set(Thread.currentThread().getName());
+            return snapshot;
+        });
+        when(renderedRatesCache.get(snapshot, "USD")).thenReturn(
+                new RenderedRatesCache.RenderedRates(1, "[]".getBytes(StandardCharsets.UTF_8), new byte[0], new byte[0]));
+
+        webTestClient.get().uri("/api/v1/currencies/{currencyCode}/rates", "USD")
+                .exchange()
+                .expectStatus().isOk();
+        assertTrue(loadThread.get().startsWith("offload"), loadThread.get());
+    }
+
+    @Test
+    void getExchangeRateByCode_notModified() {
+        RatesSnapshot snapshot = snapshotOf("USD");
+        when(exchangeRateService.findCachedSnapshot("USD")).thenReturn(Optional.of(snapshot));
+
+        webTestClient.get().uri("/api/v1/currencies/{currencyCode}/rates", "USD")
+                .header("If-None-Match", RatesResponseHeaders.baseEtag(snapshot, "USD", RatesResponseHeaders.JSON))
+                .exchange()
+                .expectStatus().isNotModified();
+        verifyNoInteractions(renderedRatesCache);
+    }
+
+    @Test
+    void getExchangeRateByCode_currencyNotFound() {
+        when(exchangeRateService.findCachedSnapshot("XXX")).thenReturn(Optional.empty());
+        when(exchangeRateService.getRatesSnapshot("XXX")).thenThrow(new CurrencyNotFoundException("Rates for XXX not found."));
+
+        webTestClient.get().uri("/api/v1/currencies/{currencyCode}/rates", "XXX")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Rates for XXX not found.");
+    }
+
+    @Test
+    void getAllCurrencies_returnsCurrencies() {
+        when(currencyService.getAllCurrencies()).thenReturn(List.of(new CurrencyDto("USD")));
+
+        webTestClient.get().uri("/api/v1/currencies")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].code").isEqualTo("USD");
+    }
+
+    @Test
+    void getAllCurrencies_cborNotModifiedAgainstCborEtag() {
+        List<CurrencyDto> currencies = List.of(new CurrencyDto("USD"));
+        when(currencyService.getAllCurrencies()).thenReturn(currencies);
+
+        webTestClient.get().uri("/api/v1/currencies")
+                .header("Accept", "application/cbor")
+                .header("If-None-Match", RatesResponseHeaders.currenciesEtag(currencies, RatesResponseHeaders.CBOR))
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void getExchangeRateHistory_concatenatesPagesUntilAnEmptyOne() {
+        Instant from = Instant.parse("2024-03-01T00:00:00Z");
+        Instant to = Instant.parse("2024-04-01T00:00:00Z");
+        List<ExchangeRateHistoryDto> first = List.of(historyRate("EUR", 1), historyRate("GBP", 1));
+        List<ExchangeRateHistoryDto> second = List.of(historyRate("EUR", 2));
+        when(exchangeRateHistoryService.getHistoryPage("USD", from, to, null)).thenReturn(first);
+        when(exchangeRateHistoryService.getHistoryPage("USD", from, to, first.get(1))).thenReturn(second);
+        when(exchangeRateHistoryService.getHistoryPage("USD", from, to, second.get(0))).thenReturn(List.of());
+
+        webTestClient.get().uri("/api/v1/currencies/USD/history?from={from}&to={to}", from, to)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[2].currencyCode").isEqualTo("EUR");
+    }
+
+    @Test
+    void getExchangeRateHistory_readsPagesOnlyAsTheSubscriberRequests() {
+        Instant from = Instant.parse("2024-03-01T00:00:00Z");
+        Instant to = Instant.parse("2024-04-01T00:00:00Z");
+        when(exchangeRateHistoryService.getHistoryPage(eq("USD"), eq(from), eq(to), any())).thenAnswer(invocation -> {
+            ExchangeRateHistoryDto after = invocation.getArgument(3);
+            int hour = after == null ? 1 : after.getTimestamp().getHour() + 1;
+            return List.of(historyRate("EUR", hour), historyRate("GBP", hour));
+        });
+
+        controller.getExchangeRateHistory("USD", from, to).take(1).blockLast();
+
+        verify(exchangeRateHistoryService, atMost(2)).getHistoryPage(eq("USD"), eq(from), eq(to), any());
+    }
+
+    private static ExchangeRateHistoryDto historyRate(String code, int hour) {
+        return new ExchangeRateHistoryDto("USD", code, new BigDecimal("0.92"), LocalDateTime.of(2024, 3, 1, hour, 0));
+    }
+
+    private static RatesSnapshot snapshotOf(String base) {
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.updateRates(base, Map.of("EUR", new BigDecimal("0.92")));
+        return cache.snapshot();
+    }
+}
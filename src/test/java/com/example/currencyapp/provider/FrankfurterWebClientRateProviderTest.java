@@ -0,0 +1,100 @@
+package com.example.currencyapp.provider;
+
+import com.example.currencyapp.client.ExchangeRatesClientProperties;
+import com.example.currencyapp.client.ExchangeRatesResilience;
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.ExternalServiceException;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrankfurterWebClientRateProviderTest {
+    private static final String RATES = "{\"base\":\"USD\",\"rates\":{\"EUR\":0.92}}";
+    private static final WireMockServer wireMock = new WireMockServer(wireMockConfig().dynamicPort());
+
+    private ExchangeRatesResilience resilience;
+    private FrankfurterWebClientRateProvider provider;
+
+    @BeforeAll
+    static void startServer() {
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        wireMock.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        wireMock.resetAll();
+        ExchangeRatesClientProperties properties = new ExchangeRatesClientProperties();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(10));
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        resilience = new ExchangeRatesResilience(properties);
+        provider = new FrankfurterWebClientRateProvider(WebClient.builder(), wireMock.baseUrl(),
+                Duration.ofSeconds(1), Duration.ofMillis(300), resilience);
+    }
+
+    @Test
+    void fetchRates_retriesTransientFailure() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).inScenario("flaky")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(serviceUnavailable())
+                .willSetStateTo("recovered"));
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).inScenario("flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(okJson(RATES)));
+
+        // Act
+        ExchangeRateResponse response = provider.fetchRates("USD");
+
+        // Assert
+        assertEquals(new BigDecimal("0.92"), response.getRates().get("EUR"));
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/latest")).withQueryParam("base", equalTo("USD")));
+    }
+
+    @Test
+    void fetchRates_clientErrorIsNotRetried() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).willReturn(notFound()));
+
+        // Act & Assert
+        assertThrows(CurrencyNotFoundException.class, () -> provider.fetchRates("XXX"));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/latest")));
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void fetchRates_openCircuitFailsFast() {
+        // Arrange
+        wireMock.stubFor(get(urlPathEqualTo("/latest")).willReturn(serverError()));
+        assertThrows(ExternalServiceException.class, () -> provider.fetchRates("USD"));
+        assertThrows(ExternalServiceException.class, () -> provider.fetchRates("USD"));
+        int requestsBeforeOpen = wireMock.getAllServeEvents().size();
+
+        // Act
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+                () -> provider.fetchRates("USD"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker().getState());
+        assertEquals("External service is unavailable.", exception.getMessage());
+        assertEquals(requestsBeforeOpen, wireMock.getAllServeEvents().size());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.currencyapp.provider;
+
+import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.ExternalServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRateSourceTest {
+
+    @Test
+    void fetchRates_fastPrimaryIsNotHedged() {
+        // Arrange
+        StubProvider primary = StubProvider.answering("primary", Duration.ZERO, "0.92");
+        StubProvider secondary = StubProvider.answering("secondary", Duration.ZERO, "0.93");
+        HedgedRateSource source = sourceOf(Duration.ofSeconds(1), primary, secondary);
+
+        // Act
+        ExchangeRateResponse response = source.fetchRates("USD");
+
+        // Assert
+        assertEquals(new BigDecimal("0.92"), response.getRates().get("EUR"));
+        assertEquals(0, secondary.calls.get());
+    }
+
+    @Test
+    void fetchRates_slowPrimaryIsHedgedAfterBudget() {
+        // Arrange
+        StubProvider primary = StubProvider.answering("primary", Duration.ofSeconds(5), "0.92");
+        StubProvider secondary = StubProvider.answering("secondary", Duration.ZERO, "0.93");
+        HedgedRateSource source = sourceOf(Duration.ofMillis(50), primary, secondary);
+
+        // Act
+        long start = System.nanoTime();
+        ExchangeRateResponse response = source.fetchRates("USD");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(new BigDecimal("0.93"), response.getRates().get("EUR"));
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "took " + elapsed);
+        assertEquals(1, primary.calls.get());
+    }
+
+    @Test
+    void fetchRates_failedPrimaryFallsThroughImmediately() {
+        // Arrange
+        StubProvider primary = StubProvider.failing("primary", new ExternalServiceException("down"));
+        StubProvider secondary = StubProvider.answering("secondary", Duration.ZERO, "0.93");
+        HedgedRateSource source = sourceOf(Duration.ofSeconds(5), primary, secondary);
+
+        // Act
+        long start = System.nanoTime();
+        ExchangeRateResponse response = source.fetchRates("USD");
+
+        // Assert
+        assertEquals(new BigDecimal("0.93"), response.getRates().get("EUR"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    @Test
+    void fetchRates_allProvidersFailRethrowsPrimaryFailure() {
+        // Arrange
+        HedgedRateSource source = sourceOf(Duration.ofMillis(50),
+                StubProvider.failing("primary", new CurrencyNotFoundException("Currency not found in external service: XXX")),
+                StubProvider.failing("secondary", new ExternalServiceException("down")));
+
+        // Act & Assert
+        CurrencyNotFoundException exception = assertThrows(CurrencyNotFoundException.class,
+                () -> source.fetchRates("XXX"));
+        assertEquals("Currency not found in external service: XXX", exception.getMessage());
+    }
+
+    @Test
+    void constructor_rejectsUnknownProvider() {
+        assertThrows(IllegalStateException.class, () -> new HedgedRateSource(
+                List.of(StubProvider.answering("primary", Duration.ZERO, "1")), List.of("missing"), Duration.ZERO, 10, new SimpleMeterRegistry()));
+    }
+
+    private static HedgedRateSource sourceOf(Duration hedgeDelay, StubProvider... providers) {
+        List<RateProvider> available = List.of(providers);
+        return new HedgedRateSource(available, available.stream().map(RateProvider::name).toList(), hedgeDelay, 10,
+                new SimpleMeterRegistry());
+    }
+
+    private static final class StubProvider implements RateProvider {
+        private final String name;
+        private final Duration delay;
+        private final String rate;
+        private final RuntimeException failure;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private StubProvider(String name, Duration delay, String rate, RuntimeException failure) {
+            this.name = name;
+            this.delay = delay;
+            this.rate = rate;
+            this.failure = failure;
+        }
+
+        static StubProvider answering(String name, Duration delay, String rate) {
+            return new StubProvider(name, delay, rate, null);
+        }
+
+        static StubProvider failing(String name, RuntimeException failure) {
+            return new StubProvider(name, Duration.ZERO, null, failure);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public ExchangeRateResponse fetchRates(String baseCurrency) {
+            calls.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExternalServiceException("Cancelled.");
+            }
+            return new ExchangeRateResponse(baseCurrency, Map.of("EUR", new BigDecimal(rate)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.currencyapp.rate;
+
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateEngineTest {
+
+    private final CrossRateEngine engine = new CrossRateEngine("EUR", 10, 4, RoundingMode.HALF_UP);
+
+    private final Map<String, BigDecimal> pivotRates = Map.of(
+            "USD", new BigDecimal("1.0850"),
+            "GBP", new BigDecimal("0.8560"),
+            "JPY", new BigDecimal("162.45"));
+
+    @Test
+    void derive_pivotReturnsPivotTable() {
+        Map<String, BigDecimal> rates = engine.derive("EUR", pivotRates);
+
+        assertEquals(pivotRates, rates);
+    }
+
+    @Test
+    void derive_crossRatesUseConfiguredScaleAndRounding() {
+        Map<String, BigDecimal> rates = engine.derive("USD", pivotRates);
+
+        assertEquals(3, rates.size());
+        assertFalse(rates.containsKey("USD"));
+        assertEquals(new BigDecimal("0.9217"), rates.get("EUR"));
+        assertEquals(new BigDecimal("0.7889"), rates.get("GBP"));
+        assertEquals(new BigDecimal("149.7235"), rates.get("JPY"));
+    }
+
+    @Test
+    void derive_weakCurrencyBaseKeepsSignificantDigits() {
+        // Arrange
+        CrossRateEngine storageEngine = new CrossRateEngine("EUR", 10, 9, RoundingMode.HALF_EVEN);
+        Map<String, BigDecimal> eurRates = Map.of(
+                "IDR", new BigDecimal("17532.15"),
+                "USD", new BigDecimal("1.0850"),
+                "GBP", new BigDecimal("0.8560"));
+        // What a provider publishing the IDR table directly would quote, to five significant digits
+        Map<String, BigDecimal> directIdrRates = Map.of(
+                "EUR", new BigDecimal("0.000057038"),
+                "USD", new BigDecimal("0.000061886"),
+                "GBP", new BigDecimal("0.000048825"));
+
+        // Act
+        Map<String, BigDecimal> rates = storageEngine.derive("IDR", eurRates);
+
+        // Assert
+        directIdrRates.forEach((quote, direct) -> {
+            BigDecimal relativeError = rates.get(quote).subtract(direct).abs()
+                    .divide(direct, MathContext.DECIMAL64);
+            assertTrue(relativeError.compareTo(new BigDecimal("0.0001")) < 0,
+                    quote + " derived as " + rates.get(quote) + ", direct rate is " + direct);
+        });
+    }
+
+    @Test
+    void derive_unknownBase() {
+        assertFalse(engine.canDerive("XAU", pivotRates));
+        assertThrows(CurrencyNotFoundException.class, () -> engine.derive("XAU", pivotRates));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.dto.ConversionBatchRequest;
+import com.example.currencyapp.dto.ConversionBatchResponse;
+import com.example.currencyapp.dto.ConversionDto;
+import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.exception.InvalidRequestException;
+import com.example.currencyapp.service.ExchangeRateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConversionServiceImplTest {
+
+    private final ExchangeRateCache cache = new ExchangeRateCache();
+    private final ExchangeRateService exchangeRateService = mock(ExchangeRateService.class);
+    private final ConversionServiceImpl conversionService =
+            new ConversionServiceImpl(cache, exchangeRateService, 4, RoundingMode.HALF_EVEN, 3);
+
+    @BeforeEach
+    void setUp() {
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92"), "PLN", new BigDecimal("4.0884")));
+        when(exchangeRateService.findCachedSnapshot("USD")).thenAnswer(invocation -> Optional.of(cache.snapshot()));
+    }
+
+    @Test
+    void convert_usesCachedRate() {
+        ConversionDto result = conversionService.convert("usd", "pln", new BigDecimal("12.50"));
+
+        assertEquals("USD", result.getFrom());
+        assertEquals("PLN", result.getTo());
+        assertEquals(new BigDecimal("4.0884"), result.getRate());
+        assertEquals(new BigDecimal("51.1050"), result.getResult());
+    }
+
+    @Test
+    void convert_fallsBackToInverseOfTrackedBase() {
+        ConversionDto result = conversionService.convert("EUR", "USD", new BigDecimal("100"));
+
+        assertEquals(new BigDecimal("1.086956522"), result.getRate());
+        assertEquals(new BigDecimal("108.6957"), result.getResult());
+    }
+
+    @Test
+    void convert_inverseLookupChecksTargetBaseFreshness() {
+        conversionService.convert("EUR", "USD", BigDecimal.ONE);
+
+        verify(exchangeRateService).findCachedSnapshot("USD");
+        verify(exchangeRateService, never()).getRatesSnapshot(anyString());
+    }
+
+    @Test
+    void convert_expiredBaseIsReloadedBeforeConverting() {
+        // Arrange
+        ExchangeRateCache refreshed = new ExchangeRateCache();
+        refreshed.updateRates("USD", Map.of("PLN", new BigDecimal("4.1")));
+        when(exchangeRateService.findCachedSnapshot("USD")).thenReturn(Optional.empty());
+        when(exchangeRateService.getRatesSnapshot("USD")).thenReturn(refreshed.snapshot());
+
+        // Act
+        ConversionDto result = conversionService.convert("USD", "PLN", BigDecimal.ONE);
+
+        // Assert
+        assertEquals(new BigDecimal("4.1"), result.getRate());
+        verify(exchangeRateService).getRatesSnapshot("USD");
+    }
+
+    @Test
+    void convert_coldBaseGoesThroughLoadPath() {
+        // Arrange
+        ExchangeRateCache loaded = new ExchangeRateCache();
+        loaded.updateRates("GBP", Map.of("JPY", new BigDecimal("191.25")));
+        when(exchangeRateService.getRatesSnapshot("GBP")).thenReturn(loaded.snapshot());
+
+        // Act
+        ConversionDto result = conversionService.convert("gbp", "jpy", new BigDecimal("2"));
+
+        // Assert
+        assertEquals(new BigDecimal("382.5000"), result.getResult());
+        verify(exchangeRateService).getRatesSnapshot("GBP");
+        assertEquals(0, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    void convert_sameCurrency() {
+        ConversionDto result = conversionService.convert("JPY", "JPY", new BigDecimal("10"));
+
+        assertEquals(new BigDecimal("10.0000"), result.getResult());
+    }
+
+    @Test
+    void convert_rateNotAvailable() {
+        when(exchangeRateService.getRatesSnapshot("EUR")).thenReturn(cache.snapshot());
+
+        assertThrows(CurrencyNotFoundException.class,
+                () -> conversionService.convert("EUR", "PLN", BigDecimal.ONE));
+    }
+
+    @Test
+    void convertAll_appliesOneRateToEveryAmount() {
+        ConversionBatchResponse response = conversionService.convertAll(new ConversionBatchRequest(
+                "USD", "EUR", List.of(new BigDecimal("1"), new BigDecimal("10.5"), new BigDecimal("0.01"))));
+
+        assertEquals(new BigDecimal("0.92"), response.getRate());
+        assertEquals(List.of(new BigDecimal("0.9200"), new BigDecimal("9.6600"), new BigDecimal("0.0092")),
+                response.getResults());
+    }
+
+    @Test
+    void convertAll_rejectsOversizedBatch() {
+        ConversionBatchRequest request = new ConversionBatchRequest("USD", "EUR",
+                List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE));
+
+        assertThrows(InvalidRequestException.class, () -> conversionService.convertAll(request));
+    }
+}
@@ -1,24 +1,45 @@
 package com.example.currencyapp.service.impl;
 
 import com.example.currencyapp.cache.ExchangeRateCache;
-import com.example.currencyapp.client.ExchangeRatesClient;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.ClusterCacheSync;
 import com.example.currencyapp.dto.CurrencyDto;
 import com.example.currencyapp.dto.ExchangeRateResponse;
 import com.example.currencyapp.entity.Currency;
 import com.example.currencyapp.exception.CurrencyAlreadyExistsException;
 import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.provider.HedgedRateSource;
 import com.example.currencyapp.repository.CurrencyRepository;
-import com.example.currencyapp.repository.ExchangeRateRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
 import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,11 +50,19 @@ class CurrencyServiceImplTest {
     @Mock
     private CurrencyRepository currencyRepository;
     @Mock
-    private ExchangeRateRepository exchangeRateRepository;
+    private LatestRateRepository latestRateRepository;
     @Mock
-    private ExchangeRatesClient exchangeRatesClient;
+    private ExchangeRateBatchWriter exchangeRateBatchWriter;
     @Mock
-    private ExchangeRateCache cache;
+    private HedgedRateSource rateSource;
+    @Spy
+    private ExchangeRateCache cache = new ExchangeRateCache();
+    @Spy
+    private SingleFlightLoader singleFlightLoader = new SingleFlightLoader(new SimpleMeterRegistry());
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Mock
+    private ObjectProvider<ClusterCacheSync> clusterCacheSync;
 
     @InjectMocks
     private CurrencyServiceImpl currencyService;
@@ -53,43 +82,50 @@ class CurrencyServiceImplTest {
 
     @Test
     void getAllCurrencies_ReturnsFromCache() {
-        Map<String, Map<String, BigDecimal>> cachedRates = Map.of(
-                "USD", Map.of("EUR", BigDecimal.valueOf(0.85))
-        );
-        when(cache.isEmpty()).thenReturn(false);
-        when(cache.getAllRates()).thenReturn(cachedRates);
+        cache.updateRates("USD", rates);
+        when(currencyRepository.findAllCodes()).thenReturn(List.of("USD"));
 
         List<CurrencyDto> result = currencyService.getAllCurrencies();
 
         assertEquals(1, result.size());
         assertEquals("USD", result.getFirst().getCode());
 
-        verify(cache, times(1)).getAllRates();
-        verifyNoInteractions(currencyRepository, exchangeRateRepository);
+        verifyNoInteractions(latestRateRepository);
+    }
+
+    @Test
+    void getAllCurrencies_includesSavedCurrencyMissingFromCache() {
+        // Arrange
+        cache.updateRates("USD", rates);
+        when(currencyRepository.findAllCodes()).thenReturn(List.of("USD", "CHF"));
+
+        // Act
+        List<CurrencyDto> result = currencyService.getAllCurrencies();
+
+        // Assert
+        assertEquals(List.of(new CurrencyDto("USD"), new CurrencyDto("CHF")), result);
     }
 
     @Test
     void getAllCurrencies_ReturnsFromDatabase() {
-        List<Currency> currencies = List.of(currency);
+        Map<String, Map<String, BigDecimal>> ratesByBase = Map.of("USD", rates);
 
-        when(cache.isEmpty()).thenReturn(true);
-        when(currencyRepository.findAll()).thenReturn(currencies);
-        when(exchangeRateRepository.findByCurrency(currency)).thenReturn(List.of());
+        when(latestRateRepository.findAllRatesByBaseCode()).thenReturn(ratesByBase);
+        when(currencyRepository.findAllCodes()).thenReturn(List.of("USD"));
 
         List<CurrencyDto> result = currencyService.getAllCurrencies();
 
         assertEquals(1, result.size());
         assertEquals("USD", result.getFirst().getCode());
 
-        verify(currencyRepository, times(1)).findAll();
-        verify(exchangeRateRepository, times(1)).findByCurrency(currency);
-        verify(cache, times(1)).updateRates(eq("USD"), any());
+        verify(latestRateRepository, times(1)).findAllRatesByBaseCode();
+        verify(cache, times(1)).publish(ratesByBase);
     }
 
     @Test
     void getAllCurrencies_NoDataAvailable() {
-        when(cache.isEmpty()).thenReturn(true);
-        when(currencyRepository.findAll()).thenReturn(List.of());
+        when(latestRateRepository.findAllRatesByBaseCode()).thenReturn(Map.of());
+        when(currencyRepository.findAllCodes()).thenReturn(List.of());
 
         CurrencyNotFoundException exception = assertThrows(CurrencyNotFoundException.class,
                 () -> currencyService.getAllCurrencies());
@@ -101,14 +137,48 @@ class CurrencyServiceImplTest {
         ExchangeRateResponse response = new ExchangeRateResponse(currencyCode,rates);
 
         when(currencyRepository.existsByCode(currencyCode)).thenReturn(false);
-        when(exchangeRatesClient.getExchangeRates(currencyCode)).thenReturn(response);
-        when(currencyRepository.save(any(Currency.class))).thenReturn(currency);
+        when(rateSource.fetchRates(currencyCode)).thenReturn(response);
+        when(currencyRepository.saveAndFlush(any(Currency.class))).thenReturn(currency);
 
         currencyService.addCurrency(currencyCode);
 
-        verify(currencyRepository, times(1)).save(any(Currency.class));
-        verify(exchangeRateRepository, times(1)).saveAll(anyList());
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(currencyRepository, times(1)).saveAndFlush(any(Currency.class));
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), eq(rates), any());
+        verify(cache, times(1)).updateRates(eq(currencyCode), eq(rates));
+    }
+
+    @Test
+    void addCurrency_withFetchedRatesSavesWithoutCallingUpstream() {
+        when(currencyRepository.existsByCode(currencyCode)).thenReturn(false);
+        when(currencyRepository.saveAndFlush(any(Currency.class))).thenReturn(currency);
+
+        currencyService.addCurrency(currencyCode.toLowerCase(), rates);
+
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), eq(rates), any());
         verify(cache, times(1)).updateRates(eq(currencyCode), eq(rates));
+        verifyNoInteractions(rateSource);
+    }
+
+    @Test
+    void addCurrency_announcesNewCurrencyToPeersAfterCommit() {
+        // Arrange
+        ClusterCacheSync sync = mock(ClusterCacheSync.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<ClusterCacheSync>>getArgument(0).accept(sync);
+            return null;
+        }).when(clusterCacheSync).ifAvailable(any());
+        when(currencyRepository.existsByCode(currencyCode)).thenReturn(false);
+        when(rateSource.fetchRates(currencyCode)).thenReturn(new ExchangeRateResponse(currencyCode, rates));
+        when(currencyRepository.saveAndFlush(any(Currency.class))).thenReturn(currency);
+
+        // Act
+        currencyService.addCurrency(currencyCode);
+
+        // Assert
+        InOrder order = inOrder(transactionTemplate, sync);
+        order.verify(transactionTemplate).executeWithoutResult(any());
+        order.verify(sync).announce(Set.of(currencyCode));
     }
 
     @Test
@@ -119,10 +189,70 @@ class CurrencyServiceImplTest {
         assertEquals("Currency with code USD already exists.", exception.getMessage());
     }
 
+    @Test
+    void addCurrency_concurrentDuplicatesAddOnce() throws Exception {
+        // Arrange
+        int callers = 4;
+        CountDownLatch checked = new CountDownLatch(callers);
+        when(currencyRepository.existsByCode(currencyCode)).thenAnswer(invocation -> {
+            checked.countDown();
+            return false;
+        });
+        when(rateSource.fetchRates(currencyCode)).thenAnswer(invocation -> {
+            checked.await(5, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            return new ExchangeRateResponse(currencyCode, rates);
+        });
+        when(currencyRepository.saveAndFlush(any(Currency.class)))
+                .thenReturn(currency)
+                .thenThrow(integrityViolation("23505", "currencies_code_key"));
+
+        // Act
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> currencyService.addCurrency(currencyCode)));
+            }
+        }
+
+        // Assert
+        int added = 0;
+        int conflicts = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                added++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(CurrencyAlreadyExistsException.class, e.getCause());
+                conflicts++;
+            }
+        }
+        assertEquals(1, added);
+        assertEquals(callers - 1, conflicts);
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), eq(rates), any());
+    }
+
+    @Test
+    void addCurrency_otherIntegrityViolationIsRethrown() {
+        // Arrange
+        DataIntegrityViolationException violation = integrityViolation("23502", null);
+        when(currencyRepository.existsByCode(currencyCode)).thenReturn(false);
+        when(rateSource.fetchRates(currencyCode)).thenReturn(new ExchangeRateResponse(currencyCode, rates));
+        when(currencyRepository.saveAndFlush(any(Currency.class))).thenThrow(violation);
+
+        // Act
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> currencyService.addCurrency(currencyCode));
+
+        // Assert
+        assertSame(violation, exception);
+        verify(cache, never()).updateRates(anyString(), anyMap());
+    }
+
     @Test
     void addCurrency_ApiError() {
         when(currencyRepository.existsByCode(currencyCode)).thenReturn(false);
-        when(exchangeRatesClient.getExchangeRates(currencyCode)).
+        when(rateSource.fetchRates(currencyCode)).
                 thenThrow(new RuntimeException("API error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
@@ -133,11 +263,18 @@ class CurrencyServiceImplTest {
     @Test
     void addCurrency_CurrencyNotFoundInApi() {
         when(currencyRepository.existsByCode(currencyCode)).thenReturn(false);
-        when(exchangeRatesClient.getExchangeRates(currencyCode)).
+        when(rateSource.fetchRates(currencyCode)).
                 thenThrow(new RuntimeException("Currency not found"));
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> currencyService.addCurrency(currencyCode));
         assertEquals("Currency not found", exception.getMessage());
     }
+
+    private static DataIntegrityViolationException integrityViolation(String sqlState, String constraint) {
+        String fields = "SERROR\0C" + sqlState + "\0Mintegrity violation\0"
+                + (constraint == null ? "" : "n" + constraint + "\0");
+        return new DataIntegrityViolationException("integrity violation",
+                new PSQLException(new ServerErrorMessage(fields)));
+    }
 }
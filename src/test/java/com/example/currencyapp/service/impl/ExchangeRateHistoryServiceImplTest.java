@@ -0,0 +1,106 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.dto.ExchangeRateHistoryDto;
+import com.example.currencyapp.entity.Currency;
+import com.example.currencyapp.exception.InvalidRequestException;
+import com.example.currencyapp.repository.CurrencyRepository;
+import com.example.currencyapp.repository.ExchangeRateHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateHistoryServiceImplTest {
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+    @Mock
+    private ExchangeRateHistoryRepository historyRepository;
+
+    private ExchangeRateHistoryServiceImpl historyService;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new ExchangeRateHistoryServiceImpl(currencyRepository, historyRepository, 12, 2, 2);
+    }
+
+    @Test
+    void maintainPartitions_createsUpcomingAndDropsExpiredMonths() {
+        YearMonth now = YearMonth.now();
+        when(historyRepository.findMonthlyPartitions()).thenReturn(List.of(
+                now.minusMonths(14), now.minusMonths(13), now.minusMonths(12), now));
+
+        historyService.maintainPartitions();
+
+        verify(historyRepository).createMonthlyPartition(now);
+        verify(historyRepository).createMonthlyPartition(now.plusMonths(1));
+        verify(historyRepository).createMonthlyPartition(now.plusMonths(2));
+        verify(historyRepository).dropMonthlyPartition(now.minusMonths(14));
+        verify(historyRepository).dropMonthlyPartition(now.minusMonths(13));
+        verify(historyRepository, never()).dropMonthlyPartition(now.minusMonths(12));
+    }
+
+    @Test
+    void maintainPartitions_carriesBaselineForwardBeforeDropping() {
+        YearMonth now = YearMonth.now();
+        when(historyRepository.findMonthlyPartitions()).thenReturn(List.of(now.minusMonths(13), now));
+
+        historyService.maintainPartitions();
+
+        LocalDateTime cutoff = now.minusMonths(12).atDay(1).atStartOfDay();
+        InOrder inOrder = inOrder(historyRepository);
+        inOrder.verify(historyRepository).carryForwardBaseline(cutoff);
+        inOrder.verify(historyRepository).dropMonthlyPartition(now.minusMonths(13));
+        inOrder.verify(historyRepository).deleteDefaultPartitionRowsBefore(cutoff);
+    }
+
+    @Test
+    void maintainPartitions_nothingExpiredKeepsHistoryUntouched() {
+        YearMonth now = YearMonth.now();
+        when(historyRepository.findMonthlyPartitions()).thenReturn(List.of(now.minusMonths(12), now));
+
+        historyService.maintainPartitions();
+
+        verify(historyRepository, never()).carryForwardBaseline(any());
+        verify(historyRepository, never()).dropMonthlyPartition(any());
+    }
+
+    @Test
+    void validateHistoryRequest_rejectsEmptyRange() {
+        Instant at = Instant.parse("2024-03-01T00:00:00Z");
+
+        assertThrows(InvalidRequestException.class, () -> historyService.validateHistoryRequest("USD", at, at));
+        verifyNoInteractions(currencyRepository);
+    }
+
+    @Test
+    void getHistoryPage_continuesAfterTheLastRateOfThePreviousPage() {
+        Instant from = Instant.parse("2024-03-01T00:00:00Z");
+        Instant to = Instant.parse("2024-04-01T00:00:00Z");
+        LocalDateTime localFrom = LocalDateTime.ofInstant(from, ZoneId.systemDefault());
+        LocalDateTime localTo = LocalDateTime.ofInstant(to, ZoneId.systemDefault());
+        ExchangeRateHistoryDto last = new ExchangeRateHistoryDto("USD", "GBP", new BigDecimal("0.79"), localFrom.plusHours(1));
+        when(currencyRepository.findByCode("USD")).thenReturn(Optional.of(new Currency(1L, "USD")));
+        when(historyRepository.findRatesPage(1L, "USD", localFrom, "", localTo, 2)).thenReturn(List.of(
+                new ExchangeRateHistoryDto("USD", "EUR", new BigDecimal("0.92"), localFrom.plusHours(1)), last));
+
+        List<ExchangeRateHistoryDto> firstPage = historyService.getHistoryPage("usd", from, to, null);
+        historyService.getHistoryPage("usd", from, to, firstPage.get(firstPage.size() - 1));
+
+        verify(historyRepository).findRatesPage(1L, "USD", localFrom.plusHours(1), "GBP", localTo, 2);
+    }
+}
@@ -1,23 +1,37 @@
 package com.example.currencyapp.service.impl;
 
-import com.example.currencyapp.client.ExchangeRatesClient;
+import com.example.currencyapp.dto.CompactRateTable;
 import com.example.currencyapp.dto.ExchangeRateDto;
 import com.example.currencyapp.dto.ExchangeRateResponse;
+import com.example.currencyapp.dto.RefreshReport;
 import com.example.currencyapp.entity.Currency;
-import com.example.currencyapp.entity.ExchangeRate;
 import com.example.currencyapp.exception.CurrencyNotFoundException;
+import com.example.currencyapp.provider.HedgedRateSource;
 import com.example.currencyapp.repository.CurrencyRepository;
-import com.example.currencyapp.repository.ExchangeRateRepository;
+import com.example.currencyapp.repository.ExchangeRateBatchWriter;
+import com.example.currencyapp.repository.LatestRateRepository;
+import com.example.currencyapp.cache.CacheTtlProperties;
 import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.cache.SingleFlightLoader;
+import com.example.currencyapp.cluster.LeaderElection;
+import com.example.currencyapp.rate.CrossRateEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,16 +40,36 @@ import static org.mockito.Mockito.*;
 class ExchangeRateServiceImplTest {
 
     @Mock
-    private ExchangeRatesClient exchangeRatesClient;
+    private HedgedRateSource rateSource;
 
     @Mock
     private CurrencyRepository currencyRepository;
 
     @Mock
-    private ExchangeRateRepository exchangeRateRepository;
+    private LatestRateRepository latestRateRepository;
 
     @Mock
-    private ExchangeRateCache cache;
+    private ExchangeRateBatchWriter exchangeRateBatchWriter;
+
+    @Spy
+    private ExchangeRateCache cache = new ExchangeRateCache();
+    @Spy
+    private SingleFlightLoader singleFlightLoader = new SingleFlightLoader(new SimpleMeterRegistry());
+
+    @Spy
+    private CrossRateEngine crossRateEngine = new CrossRateEngine("EUR", 10, 6, RoundingMode.HALF_EVEN);
+
+    @Spy
+    private RefreshTaskRunner refreshTaskRunner = new RefreshTaskRunner(2, Duration.ofSeconds(5), Duration.ofSeconds(30));
+
+    @Spy
+    private CacheTtlProperties cacheTtlProperties = new CacheTtlProperties();
+
+    @Mock
+    private ExecutorService backgroundRefreshExecutor;
+
+    @Mock
+    private ObjectProvider<LeaderElection> leaderElection;
 
     @InjectMocks
     private ExchangeRateServiceImpl exchangeRateService;
@@ -44,9 +78,7 @@ class ExchangeRateServiceImplTest {
     void getExchangeRates_foundInCache() {
         // Arrange
         String baseCurrency = "USD";
-        Map<String, BigDecimal> cachedRates = Map.of("EUR", BigDecimal.valueOf(0.85));
-        when(cache.hasRates(baseCurrency)).thenReturn(true);
-        when(cache.getRatesForCurrency(baseCurrency)).thenReturn(cachedRates);
+        cache.updateRates(baseCurrency, Map.of("EUR", BigDecimal.valueOf(0.85)));
 
         // Act
         List<ExchangeRateDto> result = exchangeRateService.getExchangeRates(baseCurrency);
@@ -55,7 +87,130 @@ class ExchangeRateServiceImplTest {
         assertEquals(1, result.size());
         assertEquals("EUR", result.getFirst().getCurrencyCode());
         assertEquals(BigDecimal.valueOf(0.85), result.getFirst().getRate());
-        verify(cache, times(1)).getRatesForCurrency(baseCurrency);
+        verifyNoInteractions(currencyRepository, latestRateRepository);
+    }
+
+    @Test
+    void getExchangeRates_staleEntryServedAndRefreshedInBackground() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", BigDecimal.valueOf(0.85)));
+        cacheTtlProperties.setSoft(Duration.ZERO);
+
+        // Act
+        List<ExchangeRateDto> first = exchangeRateService.getExchangeRates("USD");
+        List<ExchangeRateDto> second = exchangeRateService.getExchangeRates("USD");
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(0.85), first.getFirst().getRate());
+        assertEquals(1, second.size());
+        verify(backgroundRefreshExecutor, times(1)).execute(any(Runnable.class));
+        verifyNoInteractions(rateSource);
+    }
+
+    @Test
+    void getExchangeRates_expiredEntryRefreshedBeforeServing() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", BigDecimal.valueOf(0.85)));
+        cacheTtlProperties.setOverrides(Map.of("USD", new CacheTtlProperties.Ttl(Duration.ZERO, Duration.ZERO)));
+
+        when(currencyRepository.findByCode("USD")).thenReturn(Optional.of(new Currency(1L, "USD")));
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", Map.of("USD", new BigDecimal("1.25"))));
+
+        // Act
+        List<ExchangeRateDto> result = exchangeRateService.getExchangeRates("USD");
+
+        // Assert
+        assertEquals(new BigDecimal("0.8"), result.getFirst().getRate());
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), anyMap(), anySet(), any());
+        verifyNoInteractions(backgroundRefreshExecutor);
+    }
+
+    @Test
+    void getExchangeRates_followerReloadsExpiredEntryFromDatabase() {
+        // Arrange
+        LeaderElection election = mock(LeaderElection.class);
+        when(leaderElection.getIfAvailable()).thenReturn(election);
+        when(election.isLeaderAsOfLastCheck()).thenReturn(false);
+        cache.updateRates("USD", Map.of("EUR", BigDecimal.valueOf(0.85)));
+        cacheTtlProperties.setOverrides(Map.of("USD", new CacheTtlProperties.Ttl(Duration.ZERO, Duration.ZERO)));
+        when(latestRateRepository.findRatesByBaseCodes(Set.of("USD")))
+                .thenReturn(Map.of("USD", Map.of("EUR", new BigDecimal("0.8"))));
+
+        // Act
+        List<ExchangeRateDto> result = exchangeRateService.getExchangeRates("USD");
+
+        // Assert
+        assertEquals(0, new BigDecimal("0.8").compareTo(result.getFirst().getRate()));
+        verify(cache, times(1)).publishFromPeer(Map.of("USD", Map.of("EUR", new BigDecimal("0.8"))));
+        verifyNoInteractions(rateSource, exchangeRateBatchWriter);
+    }
+
+    @Test
+    void getExchangeRates_expiredEntryServedWhenRefreshFails() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", BigDecimal.valueOf(0.85)));
+        cacheTtlProperties.setHard(Duration.ZERO);
+
+        when(currencyRepository.findByCode("USD")).thenReturn(Optional.of(new Currency(1L, "USD")));
+        when(rateSource.fetchRates("EUR")).thenThrow(new RuntimeException("API error"));
+
+        // Act
+        List<ExchangeRateDto> result = exchangeRateService.getExchangeRates("USD");
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(0.85), result.getFirst().getRate());
+    }
+
+    @Test
+    void getRates_projectsRequestedBasesAndQuotes() {
+        // Arrange
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.79"), "PLN", new BigDecimal("4.08")),
+                "EUR", Map.of("USD", new BigDecimal("1.09"), "PLN", new BigDecimal("4.31")),
+                "GBP", Map.of("USD", new BigDecimal("1.27"))));
+
+        // Act
+        RatesSnapshot snapshot = exchangeRateService.getCachedRatesSnapshot(List.of("usd", "EUR"));
+        Map<String, Map<String, BigDecimal>> rates =
+                exchangeRateService.getRates(snapshot, List.of("usd", "EUR"), List.of("PLN", "usd", "XXX"));
+
+        // Assert
+        assertEquals(List.of("USD", "EUR"), List.copyOf(rates.keySet()));
+        assertEquals(Map.of("PLN", new BigDecimal("4.08")), rates.get("USD"));
+        assertEquals(Map.of("PLN", new BigDecimal("4.31"), "USD", new BigDecimal("1.09")), rates.get("EUR"));
+        verifyNoInteractions(currencyRepository, latestRateRepository, rateSource);
+    }
+
+    @Test
+    void getCompactRates_usesCodeIndexesAndFixedPointRates() {
+        // Arrange
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92"), "PLN", new BigDecimal("4.08")),
+                "EUR", Map.of("USD", new BigDecimal("1.09"))));
+
+        // Act
+        CompactRateTable table = exchangeRateService.getCompactRates(cache.snapshot(), List.of("USD", "EUR"), List.of("usd", "PLN"));
+
+        // Assert
+        assertEquals(List.of("USD", "EUR", "PLN"), table.codes());
+        assertArrayEquals(new int[]{0, 1}, table.bases());
+        assertArrayEquals(new int[]{0, 2}, table.quotes());
+        assertArrayEquals(new long[]{0L, 4_080_000_000L, 1_090_000_000L, 0L}, table.rates());
+        assertEquals(9, table.scale());
+        assertEquals(cache.snapshot().version(), table.version());
+    }
+
+    @Test
+    void getCachedRatesSnapshot_uncachedBaseNotFound() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", BigDecimal.valueOf(0.85)));
+
+        // Act & Assert
+        CurrencyNotFoundException e = assertThrows(CurrencyNotFoundException.class,
+                () -> exchangeRateService.getCachedRatesSnapshot(List.of("USD", "XAU")));
+        assertEquals("Rates for XAU not found.", e.getMessage());
+        verifyNoInteractions(currencyRepository, latestRateRepository);
     }
 
     @Test
@@ -69,23 +224,8 @@ class ExchangeRateServiceImplTest {
                 .code("USD")
                 .build();
 
-        ExchangeRate exchangeRate1 = ExchangeRate.builder()
-                .currency(currency)
-                .code("EUR")
-                .rate(BigDecimal.valueOf(0.9))
-                .timestamp(LocalDateTime.now())
-                .build();
-        ExchangeRate exchangeRate2 = ExchangeRate.builder()
-                .currency(currency)
-                .code("GBP")
-                .rate(BigDecimal.valueOf(0.75))
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(cache.hasRates(baseCurrencyCode)).thenReturn(false);
         when(currencyRepository.findByCode(baseCurrencyCode)).thenReturn(Optional.of(currency));
-        when(exchangeRateRepository.findByCurrency(currency)).thenReturn(List.of(exchangeRate1, exchangeRate2));
-        when(cache.getRatesForCurrency(baseCurrencyCode)).thenReturn(ratesMap);
+        when(latestRateRepository.findRatesByCurrencyId(1L)).thenReturn(new HashMap<>(ratesMap));
 
         List<ExchangeRateDto> exchangeRates = exchangeRateService.getExchangeRates(baseCurrencyCode);
         exchangeRates.sort(Comparator.comparing(ExchangeRateDto::getCurrencyCode));
@@ -95,6 +235,7 @@ class ExchangeRateServiceImplTest {
         assertEquals("USD", exchangeRates.getFirst().getBaseCurrencyCode());
         assertEquals("EUR", exchangeRates.getFirst().getCurrencyCode());
         assertEquals(BigDecimal.valueOf(0.9), exchangeRates.getFirst().getRate());
+        verify(cache, times(1)).updateRates(baseCurrencyCode, ratesMap);
     }
 
 
@@ -104,7 +245,6 @@ class ExchangeRateServiceImplTest {
         // Arrange
         String baseCurrency = "USD";
 
-        when(cache.hasRates(baseCurrency)).thenReturn(false);
         when(currencyRepository.findByCode(baseCurrency)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -112,6 +252,17 @@ class ExchangeRateServiceImplTest {
         verify(cache, never()).updateRates(anyString(), anyMap());
     }
 
+    @Test
+    void getExchangeRates_snapshotWithoutBaseThrowsNotFound() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", BigDecimal.valueOf(0.85)));
+        RatesSnapshot snapshot = cache.snapshot();
+
+        // Act & Assert
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRates(snapshot, "CHF"));
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateService.getExchangeRates(snapshot, "EUR"));
+    }
+
     @Test
     void updateAllExchangeRates_noCurrenciesInDatabase() {
         // Arrange
@@ -121,28 +272,221 @@ class ExchangeRateServiceImplTest {
         exchangeRateService.updateAllExchangeRates();
 
         // Assert
-        verify(exchangeRatesClient, never()).getExchangeRates(anyString());
-        verify(exchangeRateRepository, never()).saveAll(anyList());
+        verify(rateSource, never()).fetchRates(anyString());
+        verify(exchangeRateBatchWriter, never()).saveRates(any(), anyMap(), anySet(), any());
     }
 
     @Test
     void updateAllExchangeRates_currenciesExistInDatabase() {
         // Arrange
-        List<Currency> currencies = List.of(new Currency(1L, "USD", new ArrayList<>()));
-        Map<String, BigDecimal> rates = Map.of("EUR", BigDecimal.valueOf(0.85));
-        ExchangeRateResponse response = new ExchangeRateResponse("USD", rates);
+        List<Currency> currencies = List.of(new Currency(1L, "USD"));
+        Map<String, BigDecimal> pivotRates = Map.of("USD", new BigDecimal("1.25"), "GBP", new BigDecimal("0.85"));
+        ExchangeRateResponse response = new ExchangeRateResponse("EUR", pivotRates);
 
         when(currencyRepository.count()).thenReturn(1L);
         when(currencyRepository.findAll()).thenReturn(currencies);
-        when(exchangeRatesClient.getExchangeRates("USD")).thenReturn(response);
+        when(rateSource.fetchRates("EUR")).thenReturn(response);
 
         // Act
         exchangeRateService.updateAllExchangeRates();
 
         // Assert
-        verify(exchangeRateRepository, times(1)).saveAll(anyList());
-        verify(cache, times(1)).updateRates("USD", rates);
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), anyMap(), anySet(), any());
+        verify(cache, times(1)).publish(Map.of("USD", Map.of(
+                "EUR", new BigDecimal("0.800000"),
+                "GBP", new BigDecimal("0.680000"))));
+        verify(rateSource, never()).fetchRates("USD");
     }
-}
 
+    @Test
+    void updateAllExchangeRates_fetchesPivotOnceForAllBases() {
+        // Arrange
+        List<Currency> currencies = List.of(
+                new Currency(1L, "USD"),
+                new Currency(2L, "GBP"),
+                new Currency(3L, "EUR"));
+        Map<String, BigDecimal> pivotRates = Map.of("USD", new BigDecimal("1.25"), "GBP", new BigDecimal("0.85"));
+
+        when(currencyRepository.count()).thenReturn(3L);
+        when(currencyRepository.findAll()).thenReturn(currencies);
+        when(rateSource.fetchRates("EUR")).thenReturn(new ExchangeRateResponse("EUR", pivotRates));
+
+        // Act
+        RefreshReport report = exchangeRateService.updateAllExchangeRates();
+
+        // Assert
+        assertEquals(3, report.succeeded());
+        assertEquals(0, report.failed());
+        assertEquals(Set.of("USD", "GBP", "EUR"), report.changedBases());
+        verify(rateSource, times(1)).fetchRates(anyString());
+        verify(exchangeRateBatchWriter, times(3)).saveRates(any(), anyMap(), anySet(), any());
+        verify(cache, times(1)).publish(argThat(published -> published.size() == 3
+                && published.get("EUR").equals(pivotRates)));
+    }
+
+    @Test
+    void updateAllExchangeRates_persistsOnlyChangedPairs() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.8"), "GBP", new BigDecimal("0.68")));
+        Map<String, BigDecimal> pivotRates = Map.of("USD", new BigDecimal("1.25"), "GBP", new BigDecimal("0.9"));
+
+        when(currencyRepository.count()).thenReturn(1L);
+        when(currencyRepository.findAll()).thenReturn(List.of(new Currency(1L, "USD")));
+        when(rateSource.fetchRates("EUR")).thenReturn(new ExchangeRateResponse("EUR", pivotRates));
+
+        // Act
+        exchangeRateService.updateAllExchangeRates();
+
+        // Assert
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), eq(Map.of("GBP", new BigDecimal("0.720000"))), anySet(), any());
+        verify(cache, times(1)).publish(Map.of("USD", Map.of(
+                "EUR", new BigDecimal("0.800000"),
+                "GBP", new BigDecimal("0.720000"))));
+    }
+
+    @Test
+    void updateAllExchangeRates_unchangedRatesNotWrittenOrPublished() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.8")));
+
+        when(currencyRepository.count()).thenReturn(1L);
+        when(currencyRepository.findAll()).thenReturn(List.of(new Currency(1L, "USD")));
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", Map.of("USD", new BigDecimal("1.25"))));
+
+        // Act
+        RefreshReport report = exchangeRateService.updateAllExchangeRates();
+
+        // Assert
+        assertEquals(1, report.succeeded());
+        assertTrue(report.changedBases().isEmpty());
+        verifyNoInteractions(exchangeRateBatchWriter);
+        verify(cache, times(1)).publish(Map.of());
+        verify(cache, times(1)).markRevalidated(Set.of("USD"));
+    }
+
+    @Test
+    void updateAllExchangeRates_skipsBasesWhenPublicationDateUnchanged() {
+        // Arrange
+        LocalDate publishedOn = LocalDate.of(2024, 1, 5);
+        when(currencyRepository.count()).thenReturn(1L);
+        when(currencyRepository.findAll()).thenReturn(List.of(new Currency(1L, "USD")));
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", publishedOn, Map.of("USD", new BigDecimal("1.25"))))
+                .thenReturn(new ExchangeRateResponse("EUR", publishedOn, Map.of("USD", new BigDecimal("1.30"))));
+
+        // Act
+        exchangeRateService.updateAllExchangeRates();
+        exchangeRateService.updateAllExchangeRates();
+
+        // Assert
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), anyMap(), anySet(), any());
+        assertEquals(new BigDecimal("0.8"), cache.getRatesForCurrency("USD").get("EUR"));
+    }
+
+    @Test
+    void updateAllExchangeRates_timedOutBaseRecordsNoPublicationDate() {
+        // Arrange
+        ExchangeRateServiceImpl service = new ExchangeRateServiceImpl(rateSource, currencyRepository,
+                latestRateRepository, exchangeRateBatchWriter, cache, singleFlightLoader, crossRateEngine,
+                new RefreshTaskRunner(2, Duration.ofMillis(100), Duration.ofSeconds(5)), cacheTtlProperties,
+                backgroundRefreshExecutor, leaderElection);
+        LocalDate publishedOn = LocalDate.of(2024, 1, 5);
+        Map<String, BigDecimal> directRates = Map.of("USD", BigDecimal.valueOf(2400));
+        cache.updateRates("XAU", Map.of("USD", BigDecimal.valueOf(2300)));
+        AtomicInteger calls = new AtomicInteger();
+
+        when(currencyRepository.count()).thenReturn(1L);
+        when(currencyRepository.findAll()).thenReturn(List.of(new Currency(1L, "XAU")));
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", publishedOn, Map.of("USD", new BigDecimal("1.25"))));
+        when(rateSource.fetchRates("XAU")).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                sleepIgnoringInterrupts(300);
+            }
+            return new ExchangeRateResponse("XAU", publishedOn, directRates);
+        });
+
+        // Act
+        RefreshReport timedOut = service.updateAllExchangeRates();
+        verify(exchangeRateBatchWriter, timeout(2000)).saveRates(eq(1L), eq(directRates), anySet(), any());
+        service.updateAllExchangeRates();
+
+        // Assert
+        assertEquals(1, timedOut.failed());
+        assertEquals(0, BigDecimal.valueOf(2400).compareTo(cache.getRatesForCurrency("XAU").get("USD")));
+    }
+
+    @Test
+    void updateAllExchangeRates_quotesDroppedUpstreamAreRemoved() {
+        // Arrange
+        cache.updateRates("XAU", Map.of("USD", BigDecimal.valueOf(2400), "CHF", BigDecimal.valueOf(2100)));
+        Map<String, BigDecimal> directRates = Map.of("USD", BigDecimal.valueOf(2400));
+
+        when(currencyRepository.count()).thenReturn(1L);
+        when(currencyRepository.findAll()).thenReturn(List.of(new Currency(1L, "XAU")));
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", Map.of("USD", new BigDecimal("1.25"))));
+        when(rateSource.fetchRates("XAU")).thenReturn(new ExchangeRateResponse("XAU", directRates));
+
+        // Act
+        RefreshReport report = exchangeRateService.updateAllExchangeRates();
+
+        // Assert
+        verify(exchangeRateBatchWriter, times(1)).saveRates(eq(1L), eq(Map.of()), eq(Set.of("CHF")), any());
+        assertEquals(Set.of("XAU"), report.changedBases());
+        assertEquals(Set.of("USD"), cache.getRatesForCurrency("XAU").keySet());
+    }
+
+    @Test
+    void updateAllExchangeRates_baseNotQuotedAgainstPivot() {
+        // Arrange
+        List<Currency> currencies = List.of(new Currency(1L, "XAU"));
+        Map<String, BigDecimal> directRates = Map.of("USD", BigDecimal.valueOf(2400));
+
+        when(currencyRepository.count()).thenReturn(1L);
+        when(currencyRepository.findAll()).thenReturn(currencies);
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", Map.of("USD", new BigDecimal("1.25"))));
+        when(rateSource.fetchRates("XAU")).thenReturn(new ExchangeRateResponse("XAU", directRates));
+
+        // Act
+        exchangeRateService.updateAllExchangeRates();
+
+        // Assert
+        verify(cache, times(1)).publish(Map.of("XAU", directRates));
+    }
+
+    @Test
+    void updateAllExchangeRates_reportsFailedBases() {
+        // Arrange
+        List<Currency> currencies = List.of(
+                new Currency(1L, "USD"),
+                new Currency(2L, "GBP"));
+
+        when(currencyRepository.count()).thenReturn(2L);
+        when(currencyRepository.findAll()).thenReturn(currencies);
+        when(rateSource.fetchRates("EUR"))
+                .thenReturn(new ExchangeRateResponse("EUR", Map.of("USD", new BigDecimal("1.25"))));
+        when(rateSource.fetchRates("GBP")).thenThrow(new RuntimeException("API error"));
+
+        // Act
+        RefreshReport report = exchangeRateService.updateAllExchangeRates();
 
+        // Assert
+        assertEquals(1, report.succeeded());
+        assertEquals(Map.of("GBP", "API error"), report.failures());
+        verify(cache, times(1)).publish(argThat(published -> published.keySet().equals(Set.of("USD"))));
+    }
+
+    private static void sleepIgnoringInterrupts(long millis) {
+        long endNanos = System.nanoTime() + Duration.ofMillis(millis).toNanos();
+        for (long left = endNanos - System.nanoTime(); left > 0; left = endNanos - System.nanoTime()) {
+            try {
+                Thread.sleep(Duration.ofNanos(left));
+            } catch (InterruptedException ignored) {
+                // Like blocking socket I/O, keep going
+            }
+        }
+    }
+}
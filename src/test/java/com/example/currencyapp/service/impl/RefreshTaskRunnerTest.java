@@ -0,0 +1,95 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.dto.RefreshReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTaskRunnerTest {
+
+    @Test
+    void run_respectsConcurrencyCap() {
+        RefreshTaskRunner runner = new RefreshTaskRunner(2, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        RefreshReport report = runner.run(List.of("USD", "EUR", "GBP", "PLN", "JPY"), Function.identity(), code -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+        });
+
+        assertEquals(5, report.succeeded());
+        assertEquals(0, report.failed());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void run_reportsTimedOutTasks() {
+        RefreshTaskRunner runner = new RefreshTaskRunner(4, Duration.ofMillis(100), Duration.ofSeconds(30));
+
+        RefreshReport report = runner.run(List.of("USD", "EUR"), Function.identity(), code -> {
+            if (code.equals("EUR")) {
+                sleep(5_000);
+            }
+        });
+
+        assertEquals(1, report.succeeded());
+        assertEquals("Timed out.", report.failures().get("EUR"));
+        assertTrue(report.duration().compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    void run_timedOutTaskKeepsItsSlotUntilItEnds() {
+        RefreshTaskRunner runner = new RefreshTaskRunner(1, Duration.ofMillis(50), Duration.ofSeconds(30));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        RefreshReport slowRun = runner.run(List.of("USD"), Function.identity(), code -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleepIgnoringInterrupts(300);
+            running.decrementAndGet();
+        });
+        RefreshReport nextRun = runner.run(List.of("EUR"), Function.identity(),
+                code -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max));
+
+        assertEquals("Timed out.", slowRun.failures().get("USD"));
+        assertEquals(1, nextRun.succeeded());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void run_stopsAtOverallDeadline() {
+        RefreshTaskRunner runner = new RefreshTaskRunner(1, Duration.ofSeconds(5), Duration.ofMillis(200));
+
+        RefreshReport report = runner.run(List.of("USD", "EUR", "GBP"), Function.identity(), code -> sleep(150));
+
+        assertEquals(3, report.succeeded() + report.failed());
+        assertTrue(report.failed() >= 1);
+        assertTrue(report.duration().compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    private static void sleepIgnoringInterrupts(long millis) {
+        long endNanos = System.nanoTime() + Duration.ofMillis(millis).toNanos();
+        for (long left = endNanos - System.nanoTime(); left > 0; left = endNanos - System.nanoTime()) {
+            try {
+                Thread.sleep(Duration.ofNanos(left));
+            } catch (InterruptedException ignored) {
+                // Like blocking socket I/O, keep going
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.currencyapp.service.impl;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.ExchangeRatesUpdatedEvent;
+import com.example.currencyapp.cache.RatesSnapshot;
+import com.example.currencyapp.dto.ExchangeRateDto;
+import com.example.currencyapp.service.ExchangeRateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RenderedRatesCacheTest {
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    private final ExchangeRateCache cache = new ExchangeRateCache();
+    private RenderedRatesCache renderedRatesCache;
+
+    @BeforeEach
+    void setUp() {
+        renderedRatesCache = new RenderedRatesCache(exchangeRateService, new ObjectMapper());
+        when(exchangeRateService.getExchangeRates(any(RatesSnapshot.class), eq("USD"))).thenAnswer(invocation -> {
+            RatesSnapshot snapshot = invocation.getArgument(0);
+            return snapshot.ratesFor("USD").entrySet().stream()
+                    .map(rate -> new ExchangeRateDto("USD", rate.getKey(), rate.getValue()))
+                    .toList();
+        });
+    }
+
+    @Test
+    void get_rendersOncePerRowVersion() throws Exception {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        RatesSnapshot first = cache.snapshot();
+        cache.updateRates("GBP", Map.of("USD", new BigDecimal("1.27")));
+
+        // Act
+        RenderedRatesCache.RenderedRates rendered = renderedRatesCache.get(first, "usd");
+        RenderedRatesCache.RenderedRates again = renderedRatesCache.get(cache.snapshot(), "USD");
+
+        // Assert
+        assertSame(rendered, again);
+        assertEquals("[{\"baseCurrencyCode\":\"USD\",\"currencyCode\":\"EUR\",\"rate\":0.92}]",
+                new String(rendered.json()));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(rendered.gzip()))) {
+            assertArrayEquals(rendered.json(), gzip.readAllBytes());
+        }
+        verify(exchangeRateService, times(1)).getExchangeRates(any(RatesSnapshot.class), eq("USD"));
+    }
+
+    @Test
+    void onRatesUpdated_rerendersChangedBases() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        RenderedRatesCache.RenderedRates before = renderedRatesCache.get(cache.snapshot(), "USD");
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.93")));
+
+        // Act
+        renderedRatesCache.onRatesUpdated(new ExchangeRatesUpdatedEvent(cache.snapshot(), Set.of("USD")));
+        RenderedRatesCache.RenderedRates after = renderedRatesCache.get(cache.snapshot(), "USD");
+
+        // Assert
+        assertNotSame(before, after);
+        assertTrue(new String(after.json()).contains("0.93"));
+        verify(exchangeRateService, times(2)).getExchangeRates(any(RatesSnapshot.class), eq("USD"));
+    }
+
+    @Test
+    void get_keepsNewerRenderingWhenOlderSnapshotArrivesLate() {
+        // Arrange
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92")));
+        RatesSnapshot older = cache.snapshot();
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.93")));
+        RenderedRatesCache.RenderedRates newer = renderedRatesCache.get(cache.snapshot(), "USD");
+
+        // Act
+        renderedRatesCache.get(older, "USD");
+
+        // Assert
+        assertSame(newer, renderedRatesCache.get(cache.snapshot(), "USD"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.currencyapp.stream;
+
+import com.example.currencyapp.cache.ExchangeRateCache;
+import com.example.currencyapp.cache.ExchangeRatesUpdatedEvent;
+import com.example.currencyapp.exception.SubscriberLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateUpdateHubTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExchangeRateCache cache;
+    private RateUpdateHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = null;
+        cache = new ExchangeRateCache(event -> hub.onRatesUpdated((ExchangeRatesUpdatedEvent) event));
+        hub = new RateUpdateHub(cache, 2, meterRegistry, Runnable::run);
+        cache.publish(Map.of(
+                "USD", Map.of("EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.79")),
+                "EUR", Map.of("USD", new BigDecimal("1.09"))));
+    }
+
+    @Test
+    void subscribe_sendsCurrentRowsThenOnlyChangedQuotes() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        hub.subscribe(List.of("usd"), sink);
+
+        // Act
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.80")));
+        cache.updateRates("EUR", Map.of("USD", new BigDecimal("1.10")));
+
+        // Assert
+        assertEquals(2, sink.deltas.size());
+        assertEquals(Map.of("EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.79")), sink.deltas.get(0).rates());
+        assertEquals(Map.of("GBP", new BigDecimal("0.8")), sink.deltas.get(1).rates());
+    }
+
+    @Test
+    void subscribe_sendsQuotesDroppedFromTheRowAsRemoved() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        sink.ready = false;
+        RateSubscription subscription = hub.subscribe(List.of("USD"), sink);
+
+        // Act
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.93")));
+        sink.ready = true;
+        subscription.drain();
+
+        // Assert
+        assertEquals(1, sink.deltas.size());
+        assertEquals(Map.of("EUR", new BigDecimal("0.93")), sink.deltas.getFirst().rates());
+        assertEquals(Set.of("GBP"), sink.deltas.getFirst().removed());
+    }
+
+    @Test
+    void slowSubscriber_receivesCoalescedDelta() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        sink.ready = false;
+        RateSubscription subscription = hub.subscribe(List.of("USD"), sink);
+
+        // Act
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.93"), "GBP", new BigDecimal("0.79")));
+        cache.updateRates("USD", Map.of("EUR", new BigDecimal("0.93"), "GBP", new BigDecimal("0.81")));
+        sink.ready = true;
+        subscription.drain();
+
+        // Assert
+        assertEquals(1, sink.deltas.size());
+        assertEquals(Map.of("EUR", new BigDecimal("0.93"), "GBP", new BigDecimal("0.81")), sink.deltas.getFirst().rates());
+        assertEquals(cache.snapshot().rowVersion("USD"), sink.deltas.getFirst().version());
+        assertEquals(2.0, meterRegistry.get("exchange_rates.stream.coalesced").counter().count());
+    }
+
+    @Test
+    void subscribe_rejectedOverLimitAndClosedSubscriptionsFreeSlots() {
+        // Arrange
+        RateSubscription first = hub.subscribe(null, new RecordingSink());
+        hub.subscribe(null, new RecordingSink());
+
+        // Act & Assert
+        assertThrows(SubscriberLimitExceededException.class, () -> hub.subscribe(null, new RecordingSink()));
+        first.close();
+        assertDoesNotThrow(() -> hub.subscribe(null, new RecordingSink()));
+        assertEquals(2, hub.subscriberCount());
+    }
+
+    @Test
+    void subscribe_concurrentSubscribersNeverExceedLimit() throws Exception {
+        // Arrange
+        int attempts = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        hub.subscribe(null, new RecordingSink());
+                    } catch (SubscriberLimitExceededException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        // Assert
+        assertEquals(2, hub.subscriberCount());
+        assertEquals(attempts - 2, rejected.get());
+    }
+
+    private static final class RecordingSink implements RateDeltaSink {
+        private final List<RateDelta> deltas = new ArrayList<>();
+        private boolean ready = true;
+
+        @Override
+        public boolean ready() {
+            return ready;
+        }
+
+        @Override
+        public void send(RateDelta delta) {
+            deltas.add(delta);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+    }
+}